@@ -3,6 +3,8 @@ package model;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 public abstract class Card {
 	public static final int Ace = 0;
@@ -26,6 +28,9 @@ public abstract class Card {
 	public static final int SuitMask = 32 | 16;
 	public static final int RankMask = ~SuitMask;
 
+	public static final int NumberOfCards = 52;
+	private static final int NumberOfRanks = King - Ace + 1;
+
 	public static Integer[] fullDeck() {
 		int numSuits = 4;
 		Integer[] deck = new Integer[(King - Ace + 1) * numSuits];
@@ -58,6 +63,38 @@ public abstract class Card {
 		if (!isValidCard(card)) throw new InvalidCardException("Error: Invalid card: " + card + ".");
 	}
 
+	/**
+	 * Returns a dense index in range [0; 52[ of a known card, for use in lookup tables.
+	 */
+	public static int toIndex(int card) {
+		return ((card & SuitMask) >> 4) * NumberOfRanks + (card & RankMask);
+	}
+
+	/**
+	 * Returns the card with the given index; the inverse of {@link #toIndex(int)}.
+	 */
+	public static int fromIndex(int index) {
+		return (index / NumberOfRanks) << 4 | (index % NumberOfRanks);
+	}
+
+	/**
+	 * Returns a card set holding only the given card. A card set is a long with bit {@link #toIndex(int)} set for each
+	 * card it holds, so that membership, union and intersection are single bitwise operations.
+	 */
+	public static long toMask(int card) {
+		return 1L << toIndex(card);
+	}
+
+	/**
+	 * Returns the cards in the given card set; see {@link #toMask(int)}.
+	 */
+	public static @NotNull Set<Integer> fromMask(long mask) {
+		Set<Integer> cards = new HashSet<>(Long.bitCount(mask) * 2);
+		for (long remaining = mask; remaining != 0; remaining &= remaining - 1)
+			cards.add(fromIndex(Long.numberOfTrailingZeros(remaining)));
+		return cards;
+	}
+
 	public static boolean isUnknown(int card) {
 		return (card & RankMask) == Unknown;
 	}
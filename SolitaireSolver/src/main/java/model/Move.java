@@ -2,10 +2,32 @@ package model;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Objects;
 import java.util.Optional;
 
 public record Move(int movedCard, @NotNull Optional<Integer> destination) {
+	/**
+	 * The destination index of an encoded move without a destination card.
+	 */
+	private static final int NO_DESTINATION = Card.NumberOfCards;
+	private static final int NUMBER_OF_DESTINATIONS = Card.NumberOfCards + 1;
+	/**
+	 * Encoded moves are in range [0; NUMBER_OF_ENCODED_MOVES[.
+	 */
+	public static final int NUMBER_OF_ENCODED_MOVES = Card.NumberOfCards * NUMBER_OF_DESTINATIONS;
+
+	/**
+	 * Every move of a known card, indexed by its encoding, so that decoding never creates a new Move.
+	 */
+	private static final Move[] decodedMoves = new Move[NUMBER_OF_ENCODED_MOVES];
+
+	static {
+		for (int encodedMove = 0; encodedMove < NUMBER_OF_ENCODED_MOVES; encodedMove++) {
+			int movedCard = movedCardOf(encodedMove);
+			decodedMoves[encodedMove] = hasDestination(encodedMove)
+					? new Move(movedCard, destinationOf(encodedMove))
+					: new Move(movedCard);
+		}
+	}
 
 	public Move(int movedCard, @NotNull Optional<Integer> destination) {
 		if (!Card.isValidCard(movedCard) | (destination.isPresent() && !Card.isValidCard(destination.get())))
@@ -22,6 +44,57 @@ public record Move(int movedCard, @NotNull Optional<Integer> destination) {
 		this(movedCard, Optional.of(destination));
 	}
 
+	/**
+	 * Encodes a move of a known card onto another known card as a small int. Encoded moves let move generation and
+	 * search work on plain ints instead of allocating Move objects.
+	 */
+	public static int encode(int movedCard, int destination) {
+		return Card.toIndex(movedCard) * NUMBER_OF_DESTINATIONS + Card.toIndex(destination);
+	}
+
+	/**
+	 * Encodes a move of a known card to an empty column or foundation as a small int.
+	 */
+	public static int encode(int movedCard) {
+		return Card.toIndex(movedCard) * NUMBER_OF_DESTINATIONS + NO_DESTINATION;
+	}
+
+	public static int movedCardOf(int encodedMove) {
+		return Card.fromIndex(encodedMove / NUMBER_OF_DESTINATIONS);
+	}
+
+	public static boolean hasDestination(int encodedMove) {
+		return encodedMove % NUMBER_OF_DESTINATIONS != NO_DESTINATION;
+	}
+
+	/**
+	 * Returns the destination card of an encoded move. Only meaningful if the move {@link #hasDestination(int)}.
+	 */
+	public static int destinationOf(int encodedMove) {
+		return Card.fromIndex(encodedMove % NUMBER_OF_DESTINATIONS);
+	}
+
+	/**
+	 * Returns the move with the given encoding. The same Move instance is returned every time.
+	 */
+	public static @NotNull Move decode(int encodedMove) {
+		if (encodedMove < 0 || encodedMove >= NUMBER_OF_ENCODED_MOVES)
+			throw new IllegalArgumentException("Error: Invalid encoded move: " + encodedMove);
+		return decodedMoves[encodedMove];
+	}
+
+	/**
+	 * Returns the encoding of this move; see {@link #encode(int, int)}.
+	 *
+	 * @throws IllegalStateException if the moved card or the destination is unknown, as such moves have no encoding
+	 */
+	public int encode() {
+		if (Card.isUnknown(movedCard) || (destination.isPresent() && Card.isUnknown(destination.get())))
+			throw new IllegalStateException("Error: Moves of or onto unknown cards cannot be encoded: " + this);
+		if (destination.isEmpty()) return encode(movedCard);
+		return encode(movedCard, destination.get());
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -32,7 +105,7 @@ public record Move(int movedCard, @NotNull Optional<Integer> destination) {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(movedCard, destination);
+		return 31 * movedCard + destination.hashCode(); // Objects.hash would allocate a varargs array every call
 	}
 
 
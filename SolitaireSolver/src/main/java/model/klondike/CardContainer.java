@@ -19,6 +19,12 @@ interface CardContainer {
 	@Contract(pure = true)
 	Set<Integer> reachableCards();
 
+	/**
+	 * Returns the same cards as {@link #reachableCards()}, as a card set; see {@link model.Card#toMask(int)}.
+	 */
+	@Contract(pure = true)
+	long reachableCardsMask();
+
 	boolean isEmpty();
 
 	int getNumberOfCards();
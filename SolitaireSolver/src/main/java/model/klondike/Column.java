@@ -15,14 +15,19 @@ class Column implements CardContainer {
 	 * In a game of klondike, a column can start with at most 7 cards. If the last
 	 * card is a king, then 12 more cards can be moved on top of it.
 	 */
-	private final static int MAX_NUM_CARDS_IN_COLUMN = 7 + 12;
+	final static int MAX_NUM_CARDS_IN_COLUMN = 7 + 12;
 	private final int[] cards;
 	private int numCards;
+	/**
+	 * The known cards on top of the column as a card set; kept up to date on every move rather than rebuilt.
+	 */
+	private long reachableCards;
 
 	@SuppressWarnings("CopyConstructorMissesField")
 	protected Column(Column column) {
 		this.cards = column.cards.clone();
 		this.numCards = column.numCards;
+		this.reachableCards = column.reachableCards;
 	}
 
 	protected Column(int numberOfUnknownCards) {
@@ -44,6 +49,8 @@ class Column implements CardContainer {
 		for (int i = 0; i < numberOfUnknownCards; i++) // Unlike System.arraycopy, Arrays.fill is not a native method
 			cards[i] = Card.Unknown;
 		System.arraycopy(knownCards, 0, cards, numberOfUnknownCards, knownCards.length);
+		for (int card : knownCards)
+			reachableCards |= Card.toMask(card);
 	}
 
 	private void validateCardSequence(int... cards) {
@@ -62,6 +69,20 @@ class Column implements CardContainer {
 		if (!isUnknown(cards[index]))
 			throw new IllegalArgumentException("Error: Card at index " + index + " is already revealed!");
 		cards[index] = card;
+		updateReachableCards();
+	}
+
+	void conceal(int index) {
+		if (isUnknown(cards[index]))
+			throw new IllegalArgumentException("Error: Card at index " + index + " is already face down!");
+		cards[index] = Card.Unknown;
+		updateReachableCards();
+	}
+
+	private void updateReachableCards() {
+		reachableCards = 0;
+		for (int i = size() - 1; i >= 0 && !isUnknown(cards[i]); i--)
+			reachableCards |= Card.toMask(cards[i]);
 	}
 
 	@Contract(pure = true)
@@ -76,12 +97,14 @@ class Column implements CardContainer {
 
 	@Override
 	public MoveMetaInformation move(int card, @NotNull CardContainer destination) throws IllegalMoveException {
-		if (!reachableCards().contains(card))
+		if ((reachableCards & Card.toMask(card)) == 0)
 			throw new IllegalMoveException("Error: Card " + Card.asString(card) + " cannot be moved from Column: " + this);
 		int numMovingCards = this.size() - this.indexOf(card);
 		int[] movingCards = new int[numMovingCards];
+		long movingMask = 0;
 		for (int i = numMovingCards - 1; i >= 0; i--) {
 			movingCards[i] = this.lastCard();
+			movingMask |= Card.toMask(movingCards[i]);
 			numCards--;
 		}
 		try {
@@ -93,9 +116,27 @@ class Column implements CardContainer {
 			}
 			throw e;
 		}
+		reachableCards &= ~movingMask;
 		return new MoveMetaInformation(destination, this);
 	}
 
+	/**
+	 * Puts the card on top of the column without checking that it may go there, nor allocating; for moves already
+	 * known to be legal.
+	 */
+	void push(int card) {
+		cards[numCards++] = card;
+		reachableCards |= Card.toMask(card);
+	}
+
+	/**
+	 * Removes the top numCards cards of the column. They must be known.
+	 */
+	void pop(int numCards) {
+		for (int i = 0; i < numCards; i++)
+			reachableCards &= ~Card.toMask(cards[--this.numCards]);
+	}
+
 	private int indexOf(int card) {
 		for (int i = 0; i < size(); i++) {
 			if (cards[i] == card) return i;
@@ -131,15 +172,17 @@ class Column implements CardContainer {
 
 		System.arraycopy(cards, 0, this.cards, numCards, cards.length);
 		numCards += cards.length;
+		for (int card : cards)
+			reachableCards |= Card.toMask(card);
 	}
 
 	@Override
 	public @NotNull Set<Integer> reachableCards() {
-		Set<Integer> reachableCards = new HashSet<>(size());
-		for (int i = size() - 1; i >= 0; i--) {
-			if (isUnknown(cards[i])) break;
-			reachableCards.add(cards[i]);
-		}
+		return Card.fromMask(reachableCards);
+	}
+
+	@Override
+	public long reachableCardsMask() {
 		return reachableCards;
 	}
 
@@ -152,6 +195,7 @@ class Column implements CardContainer {
 	public boolean canAcceptCard(int card) {
 		int cardRank = card & RankMask;
 		if (isEmpty()) return cardRank == Card.King;
+		if (isUnknown(lastCard())) return false;
 		if ((card & Card.Colour) == (lastCard() & Card.Colour)) return false;
 		return (lastCard() & RankMask) - cardRank == 1;
 	}
@@ -170,6 +214,18 @@ class Column implements CardContainer {
 		return cards[size() - 1];
 	}
 
+	int cardAt(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException("Error: Index " + index + " is out of bounds for Column: " + this);
+		return cards[index];
+	}
+
+	public int getNumberOfUnknownCards() {
+		int numUnknown = 0;
+		while (numUnknown < size() && isUnknown(cards[numUnknown])) numUnknown++;
+		return numUnknown;
+	}
+
 	public boolean contains(int card) {
 		for (int i = 0; i < size(); i++)
 			if (cards[i] == card) return true;
@@ -191,7 +247,9 @@ class Column implements CardContainer {
 	@Override
 	public int hashCode() {
 		int result = Objects.hash(numCards);
-		result = 31 * result + Arrays.hashCode(cards);
+		for (int i = 0; i < size(); i++) {
+			result = 31 * result + cards[i]; // Cards beyond the top of the column are left-overs and must not count
+		}
 		return result;
 	}
 
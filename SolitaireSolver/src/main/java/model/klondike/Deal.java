@@ -0,0 +1,97 @@
+package model.klondike;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The cards of a game of Klondike as dealt: the stock, and the face-down cards of each column, which a game made by
+ * {@link Klondike#newGame(Stock)} does not know. With both, a game can be played as it would be at a table, turning
+ * each face-down card over as the card dealt there once it is uncovered.
+ * <p>
+ * A deal is immutable: it keeps copies of the arrays it is made from, and hands out copies of its own.
+ *
+ * @param stock       the cards of the stock, in the order they are dealt
+ * @param hiddenCards for each column, the cards of its face-down places from the bottom up. Column i has i places.
+ */
+public record Deal(int @NotNull [] stock, int @NotNull [] @NotNull [] hiddenCards) {
+	public Deal {
+		if (stock == null)
+			throw new IllegalArgumentException("Error: stock must not be null");
+		if (hiddenCards == null)
+			throw new IllegalArgumentException("Error: hiddenCards must not be null");
+		if (hiddenCards.length != Klondike.NUMBER_OF_COLUMNS)
+			throw new IllegalArgumentException("Error: Expected hidden cards for " + Klondike.NUMBER_OF_COLUMNS + " columns, was " + hiddenCards.length);
+		stock = stock.clone();
+		hiddenCards = hiddenCards.clone();
+		for (int column = 0; column < Klondike.NUMBER_OF_COLUMNS; column++) {
+			if (hiddenCards[column].length != column)
+				throw new IllegalArgumentException("Error: Expected " + column + " hidden cards in column " + column
+						+ ", was " + hiddenCards[column].length);
+			hiddenCards[column] = hiddenCards[column].clone();
+		}
+	}
+
+	/**
+	 * Returns the deal of a deck shuffled by the given seed; the same seed always gives the same deal. The first
+	 * cards of the deck are dealt to the face-down places, column by column, and the rest to the stock. To deal many
+	 * games, use a {@link DealGenerator}, which does not allocate a deal for each.
+	 */
+	@Contract("_ -> new")
+	public static @NotNull Deal fromSeed(long seed) {
+		DealGenerator generator = new DealGenerator();
+		generator.deal(seed);
+		return generator.toDeal();
+	}
+
+	@Override
+	@Contract("-> new")
+	public int @NotNull [] stock() {
+		return stock.clone();
+	}
+
+	@Override
+	@Contract("-> new")
+	public int @NotNull [] @NotNull [] hiddenCards() {
+		int[][] copy = hiddenCards.clone();
+		for (int column = 0; column < copy.length; column++)
+			copy[column] = copy[column].clone();
+		return copy;
+	}
+
+	/**
+	 * Returns a new game of this deal, with the top card of each column turned over.
+	 */
+	@Contract("-> new")
+	public @NotNull Klondike newGame() {
+		return Klondike.newGame(new Stock(stock), hiddenCards);
+	}
+
+	/**
+	 * Turns over every face-down card on top of a column of a game of this deal, as the card dealt there, and returns
+	 * the number of cards turned over; see {@link Klondike#revealUncoveredCards(int[][])}.
+	 */
+	public int revealUncoveredCards(@NotNull Klondike game) {
+		return game.revealUncoveredCards(hiddenCards);
+	}
+
+	@Contract(value = "null -> false", pure = true)
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		Deal deal = (Deal) o;
+		return Arrays.equals(stock, deal.stock) && Arrays.deepEquals(hiddenCards, deal.hiddenCards);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(stock) + Arrays.deepHashCode(hiddenCards);
+	}
+
+	@Override
+	public String toString() {
+		return "Deal{stock=" + Arrays.toString(stock) + ", hiddenCards=" + Arrays.deepToString(hiddenCards) + '}';
+	}
+}
@@ -0,0 +1,138 @@
+package model.klondike;
+
+import model.Card;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Deals games of Klondike from 64-bit seeds, fast enough to deal millions a second. A generator holds one deal at a
+ * time, in a deck it shuffles in place, so dealing allocates nothing; only the games made from the deal do. The same
+ * seed always gives the same deal, the one {@link Deal#fromSeed(long)} gives.
+ * <p>
+ * Not safe to share between threads; each thread should have its own.
+ */
+public final class DealGenerator {
+	private static final int NUMBER_OF_HIDDEN_CARDS = Klondike.NUMBER_OF_COLUMNS * (Klondike.NUMBER_OF_COLUMNS - 1) / 2;
+	private static final int NUMBER_OF_STOCK_CARDS = Card.NumberOfCards - NUMBER_OF_HIDDEN_CARDS;
+	/**
+	 * The odd constant {@link java.util.SplittableRandom} adds to its state for each number, so that shuffling gives
+	 * the same deck as shuffling with one.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * The unshuffled deck, each card at its index.
+	 */
+	private static final int @NotNull [] ORDERED_DECK = new int[Card.NumberOfCards];
+
+	static {
+		for (int i = 0; i < ORDERED_DECK.length; i++)
+			ORDERED_DECK[i] = Card.fromIndex(i);
+	}
+
+	/**
+	 * The face-down cards, column by column from the bottom up, then the stock.
+	 */
+	private final int @NotNull [] deck = new int[Card.NumberOfCards];
+	/**
+	 * The stock, copied out of the deck for {@link Stock#Stock(int...)}, which copies it again.
+	 */
+	private final int @NotNull [] stock = new int[NUMBER_OF_STOCK_CARDS];
+	/**
+	 * The face-down cards, copied out of the deck column by column, as {@link Klondike} takes them.
+	 */
+	private final int @NotNull [] @NotNull [] hiddenCards = new int[Klondike.NUMBER_OF_COLUMNS][];
+	private long state;
+
+	/**
+	 * Creates a generator holding the deal of seed 0.
+	 */
+	public DealGenerator() {
+		for (int column = 0; column < hiddenCards.length; column++)
+			hiddenCards[column] = new int[column];
+		deal(0);
+	}
+
+	/**
+	 * Deals the cards shuffled by the given seed, replacing the deal held.
+	 */
+	public void deal(long seed) {
+		System.arraycopy(ORDERED_DECK, 0, deck, 0, deck.length);
+		state = seed;
+		for (int i = deck.length - 1; i > 0; i--) { // Fisher-Yates shuffle
+			int j = nextInt(i + 1);
+			int card = deck[i];
+			deck[i] = deck[j];
+			deck[j] = card;
+		}
+		for (int column = 0, start = 0; column < hiddenCards.length; start += column++)
+			System.arraycopy(deck, start, hiddenCards[column], 0, column);
+		System.arraycopy(deck, NUMBER_OF_HIDDEN_CARDS, stock, 0, stock.length);
+	}
+
+	/**
+	 * Returns a number in range [0; bound[, as {@link java.util.SplittableRandom#nextInt(int)} would.
+	 */
+	private int nextInt(int bound) {
+		int r = nextInt();
+		int m = bound - 1;
+		if ((bound & m) == 0) return r & m;
+		int u = r >>> 1;
+		while (u + m - (r = u % bound) < 0) // Overflowed, so u is in the last, incomplete run of bound numbers
+			u = nextInt() >>> 1;
+		return r;
+	}
+
+	private int nextInt() {
+		long z = state += GOLDEN_GAMMA;
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	/**
+	 * Returns the card at the given index of the stock, in the order they are dealt.
+	 */
+	@Contract(pure = true)
+	public int getStockCard(int index) {
+		if (index < 0 || index >= stock.length)
+			throw new IllegalArgumentException("Error: Stock index must be in range [0; " + stock.length + "[, was " + index);
+		return stock[index];
+	}
+
+	/**
+	 * Returns the card dealt face down to the given place of the given column. Column i has i places, numbered from
+	 * the bottom up.
+	 */
+	@Contract(pure = true)
+	public int getHiddenCard(int column, int position) {
+		if (column < 0 || column >= hiddenCards.length)
+			throw new IllegalArgumentException("Error: Column must be in range [0; " + hiddenCards.length + "[, was " + column);
+		if (position < 0 || position >= column)
+			throw new IllegalArgumentException("Error: Column " + column + " has no face-down place " + position);
+		return hiddenCards[column][position];
+	}
+
+	/**
+	 * Returns a new game of the deal held, with the top card of each column turned over.
+	 */
+	@Contract("-> new")
+	public @NotNull Klondike newGame() {
+		return Klondike.newGame(new Stock(stock), hiddenCards);
+	}
+
+	/**
+	 * Turns over every face-down card on top of a column of a game of the deal held, as the card dealt there, and
+	 * returns the number of cards turned over; see {@link Klondike#revealUncoveredCards(int[][])}.
+	 */
+	public int revealUncoveredCards(@NotNull Klondike game) {
+		return game.revealUncoveredCards(hiddenCards);
+	}
+
+	/**
+	 * Returns the deal held as a {@link Deal}, which, unlike this generator, keeps it.
+	 */
+	@Contract("-> new")
+	public @NotNull Deal toDeal() {
+		return new Deal(stock, hiddenCards); // Which copies them
+	}
+}
@@ -5,10 +5,7 @@ import model.IllegalMoveException;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 
 import static model.Card.isUnknown;
 
@@ -69,7 +66,7 @@ class Foundation implements CardContainer {
 	@Override
 	public boolean canAcceptCard(int card) {
 		if (isEmpty()) return (card & Card.RankMask) == Card.Ace;
-		return acceptableSequence(cards[size - 1], card);
+		return !isUnknown(card) && card - lastCard() == 1; // acceptableSequence, without allocating a varargs array
 	}
 
 	@Contract(pure = true)
@@ -81,7 +78,7 @@ class Foundation implements CardContainer {
 
 	@Override
 	public MoveMetaInformation move(int card, @NotNull CardContainer destination) throws IllegalMoveException {
-		if (!this.reachableCards().contains(card))
+		if ((reachableCardsMask() & Card.toMask(card)) == 0)
 			throw new IllegalMoveException("Error: Cannot move card: [" + Card.asString(card) + "] from Foundation: " + this);
 		destination.receive(card);
 		size--;
@@ -111,6 +108,35 @@ class Foundation implements CardContainer {
 		return Set.of(cards[size - 1]);
 	}
 
+	@Override
+	public long reachableCardsMask() {
+		if (isEmpty()) return 0;
+		return Card.toMask(cards[size - 1]);
+	}
+
+	/**
+	 * Puts the card on top of the foundation without checking that it may go there; for moves already known to be
+	 * legal.
+	 */
+	void push(int card) {
+		cards[size++] = card;
+	}
+
+	void pop(int numCards) {
+		size -= numCards;
+	}
+
+	int lastCard() {
+		if (isEmpty()) throw new NoSuchElementException("Error: Cannot return last card as foundation is empty!");
+		return cards[size - 1];
+	}
+
+	int cardAt(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Error: Index " + index + " is out of bounds for Foundation: " + this);
+		return cards[index];
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return size < 1;
@@ -27,31 +27,98 @@ class StockMoveMetaInformation extends MoveMetaInformation {
 	}
 }
 
-record MoveHistoryRecord(Move move, MoveMetaInformation info) {
-}
-
 public final class Klondike implements Solitaire {
+	/**
+	 * The number of columns of a game made by {@link #newGame(Stock)}.
+	 */
+	public static final int NUMBER_OF_COLUMNS = 7;
+
 	public final Foundation @NotNull [] foundations;
 	public final Column @NotNull [] columns;
 	public final @NotNull Stock stock;
 
-	private final @NotNull Stack<MoveHistoryRecord> moveHistory;
+	/**
+	 * The move history, one entry per move made and not undone. Kept in preallocated primitive arrays rather than as
+	 * objects, so that neither making nor undoing a move allocates.
+	 */
+	private int historySize = 0;
+	/**
+	 * Indices into {@link #containers} of where the cards of each move came from and went to. For a card turned face
+	 * up by {@link #revealTopCard(int, int)}, the source is its column and the destination {@link #REVEAL}.
+	 */
+	private int @NotNull [] historySources = new int[INITIAL_HISTORY_CAPACITY];
+	private int @NotNull [] historyDestinations = new int[INITIAL_HISTORY_CAPACITY];
+	private int @NotNull [] historyNumCards = new int[INITIAL_HISTORY_CAPACITY];
+	/**
+	 * For moves from the stock, the index the card was taken from and the waste before it was taken.
+	 */
+	private int @NotNull [] historyStockIndices = new int[INITIAL_HISTORY_CAPACITY];
+	private int @NotNull [] historyWastes = new int[INITIAL_HISTORY_CAPACITY];
+	private static final int INITIAL_HISTORY_CAPACITY = 128;
+	private static final int REVEAL = -1;
 
-	private Klondike(Foundation @NotNull [] foundations, Column @NotNull [] columns, @NotNull Stock stock, @NotNull Stack<MoveHistoryRecord> moveHistory) {
-		this.foundations = foundations;
-		this.columns = columns;
-		this.stock = stock;
-		this.moveHistory = moveHistory;
-	}
+	/**
+	 * The columns, then the foundations, then the stock. Containers are referred to by their index herein.
+	 */
+	private final CardContainer @NotNull [] containers;
+	private final int stockIndex;
+	/**
+	 * Marks a card that is in no container, because it is still face down or not part of the game.
+	 */
+	private static final byte NOWHERE = -1;
+	/**
+	 * For each card, indexed by {@link Card#toIndex(int)}, the index of the container holding it, or {@link #NOWHERE}.
+	 * Like the Zobrist key, this is kept up to date by makeMove and undoMove, so finding a card is O(1).
+	 */
+	private final byte @NotNull [] cardContainers = new byte[Card.NumberOfCards];
+	/**
+	 * For each card, indexed by {@link Card#toIndex(int)}, its position in the container holding it. Not kept for the
+	 * stock, as taking a card from it shifts the cards above; the stock knows the positions of its cards itself.
+	 */
+	private final byte @NotNull [] cardPositions = new byte[Card.NumberOfCards];
+
+	/**
+	 * Kept up to date by makeMove and undoMove, which is why the containers must not be changed by anything else.
+	 */
+	private long zobristKey;
+	/**
+	 * For each suit symmetry, the key of the position relabeled by it, leaving out the columns, whose keys are summed
+	 * separately in {@link #canonicalColumnSums}. See {@link #getCanonicalKey()}. Kept up to date like the Zobrist key.
+	 */
+	private final long @NotNull [] canonicalKeys = new long[Zobrist.NUM_SUIT_SYMMETRIES];
+	/**
+	 * For each suit symmetry and column, the key of the column relabeled by it, independent of where the column is.
+	 */
+	private final long @NotNull [] @NotNull [] canonicalColumnKeys;
+	/**
+	 * For each suit symmetry, the sum of the keys of the columns. Unlike XOR, a sum does not cancel out equal keys,
+	 * e.g. of two columns holding only the same number of face-down cards.
+	 */
+	private final long @NotNull [] canonicalColumnSums = new long[Zobrist.NUM_SUIT_SYMMETRIES];
 
 	public Klondike(@NotNull Foundation @NotNull [] foundations,
 	                @NotNull Column @NotNull [] columns,
 	                @NotNull Stock stock) {
-		this(foundations, columns, stock, new Stack<>());
+		if (foundations.length > Zobrist.MAX_NUM_FOUNDATIONS)
+			throw new IllegalArgumentException("Error: A game of Klondike has at most " + Zobrist.MAX_NUM_FOUNDATIONS + " foundations");
+		if (columns.length > Zobrist.MAX_NUM_COLUMNS)
+			throw new IllegalArgumentException("Error: A game of Klondike has at most " + Zobrist.MAX_NUM_COLUMNS + " columns");
+		this.foundations = foundations;
+		this.columns = columns;
+		this.stock = stock;
+		this.containers = new CardContainer[columns.length + foundations.length + 1];
+		System.arraycopy(columns, 0, containers, 0, columns.length);
+		System.arraycopy(foundations, 0, containers, columns.length, foundations.length);
+		this.stockIndex = containers.length - 1;
+		containers[stockIndex] = stock;
+		locateCards();
+		this.zobristKey = computeZobristKey();
+		this.canonicalColumnKeys = new long[Zobrist.NUM_SUIT_SYMMETRIES][columns.length];
+		computeCanonicalKeys();
 	}
 
 	public static Klondike newGame(@NotNull Stock stock) {
-		Column[] columns = new Column[7];
+		Column[] columns = new Column[NUMBER_OF_COLUMNS];
 		for (int i = 0; i < columns.length; i++) {
 			columns[i] = new Column(i);
 		}
@@ -64,54 +131,371 @@ public final class Klondike implements Solitaire {
 		return new Klondike(foundations, columns, stock);
 	}
 
+	/**
+	 * Returns a new game with the given cards dealt face down, and the top card of each column turned over.
+	 *
+	 * @param hiddenCards for each column, the cards of its face-down places from the bottom up. Column i has i places.
+	 */
+	public static Klondike newGame(@NotNull Stock stock, int @NotNull [] @NotNull [] hiddenCards) {
+		Klondike game = newGame(stock);
+		game.revealUncoveredCards(hiddenCards);
+		return game;
+	}
+
 	@Override
 	public void makeMove(@NotNull Move move) throws IllegalMoveException {
-		CardContainer mover = findSource(move.movedCard());
-		CardContainer destination = findDestination(move);
-		MoveMetaInformation info = mover.move(move.movedCard(), destination);
-		MoveHistoryRecord record = new MoveHistoryRecord(move, info);
-		moveHistory.push(record);
+		int card = move.movedCard();
+		int source = findSource(card);
+		int destination = findDestination(move);
+		if (!containers[destination].canAcceptCard(card))
+			throw new IllegalMoveException("Error: Card " + Card.asString(card) + " cannot be moved to " + containers[destination]);
+		int position = source == stockIndex ? stock.indexOf(card) : cardPositions[Card.toIndex(card)];
+		int numCards = source == stockIndex ? 1 : containers[source].getNumberOfCards() - position;
+		if (numCards > 1 && destination >= columns.length)
+			throw new IllegalMoveException("Error: Only one card at a time can be moved to a foundation");
+
+		int wasteBefore = stock.waste();
+		if (source == stockIndex) {
+			stock.take(card);
+			push(destination, card);
+		} else {
+			transfer(source, destination, numCards);
+		}
+		cardsMoved(card, numCards, source, destination, wasteBefore, position);
+		recordMove(source, destination, numCards, position, wasteBefore);
 	}
 
 	@Override
 	public void undoMove() {
-		if (moveHistory.isEmpty())
+		if (historySize == 0)
 			throw new EmptyHistoryException("Error: Move history is empty; there is no move to undo!");
-		MoveHistoryRecord record = moveHistory.pop();
-		CardContainer source = record.info().source;
-		int card = record.move().movedCard();
-		source.undo(card, record.info());
+		int move = --historySize;
+		int source = historySources[move], destination = historyDestinations[move], numCards = historyNumCards[move];
+		if (destination == REVEAL) {
+			concealTopCard(source);
+			return;
+		}
+		int card = cardAt(destination, containers[destination].getNumberOfCards() - numCards);
+		int wasteBefore = stock.waste();
+		if (source == stockIndex) {
+			pop(destination, 1);
+			stock.putBack(card, historyStockIndices[move], historyWastes[move]);
+		} else {
+			transfer(destination, source, numCards);
+		}
+		cardsMoved(card, numCards, destination, source, wasteBefore, historyStockIndices[move]);
 	}
 
-	@NotNull
-	private CardContainer findSource(int card) throws IllegalMoveException {
-		for (Column column : columns)
-			if (column.reachableCards().contains(card)) return column;
-		for (Foundation foundation : foundations)
-			if (foundation.reachableCards().contains(card)) return foundation;
-		if (stock.reachableCards().contains(card)) return stock;
+	/**
+	 * Turns the face-down top card of the given column face up, as the given card. Like a move, this is undone by
+	 * {@link #undoMove()}, which turns the card face down again.
+	 *
+	 * @param card a card not already face up in the game
+	 */
+	public void revealTopCard(int column, int card) {
+		if (!hasUnknownTopCard(column))
+			throw new IllegalArgumentException("Error: Top card of column " + column + " is not face down");
+		if (!Card.isValidCard(card) || Card.isUnknown(card) || cardContainers[Card.toIndex(card)] != NOWHERE)
+			throw new IllegalArgumentException("Error: Card " + Card.asString(card) + " cannot be revealed, as it is not face down");
+		int position = columns[column].getNumberOfCards() - 1;
+		columns[column].reveal(card, position);
+		zobristKey ^= Zobrist.column(column, position, Card.Unknown) ^ Zobrist.column(column, position, card);
+		toggleCanonicalKeys(Card.Unknown, column, position);
+		toggleCanonicalKeys(card, column, position);
+		locateCard(card, column, position);
+		recordMove(column, REVEAL, 0, 0, stock.waste());
+	}
 
-		throw new IllegalMoveException("Error: Cannot find card " + Card.asString(card) + " in any reachable card container.");
+	/**
+	 * Turns over every face-down card on top of a column, as the card of its place, and returns the number of cards
+	 * turned over. Each is undone by one call to {@link #undoMove()}.
+	 *
+	 * @param hiddenCards for each column, the cards of its face-down places from the bottom up, as for
+	 *                    {@link #isDeadEnd(int[][])}. A top card whose place holds {@link Card#Unknown} stays face down.
+	 */
+	public int revealUncoveredCards(int @NotNull [] @NotNull [] hiddenCards) {
+		if (hiddenCards.length != columns.length)
+			throw new IllegalArgumentException("Error: Expected hidden cards for " + columns.length + " columns, was " + hiddenCards.length);
+		int numRevealed = 0;
+		for (int column = 0; column < columns.length; column++) {
+			if (!hasUnknownTopCard(column)) continue;
+			int card = hiddenCards[column][getNumberOfUnknownCards(column) - 1];
+			if (Card.isUnknown(card)) continue;
+			revealTopCard(column, card);
+			numRevealed++;
+		}
+		return numRevealed;
 	}
 
-	@NotNull
-	private CardContainer findDestination(Move move) throws IllegalMoveException {
+	private void concealTopCard(int column) {
+		int position = columns[column].getNumberOfCards() - 1;
+		int card = columns[column].lastCard();
+		columns[column].conceal(position);
+		zobristKey ^= Zobrist.column(column, position, card) ^ Zobrist.column(column, position, Card.Unknown);
+		toggleCanonicalKeys(card, column, position);
+		toggleCanonicalKeys(Card.Unknown, column, position);
+		cardContainers[Card.toIndex(card)] = NOWHERE;
+	}
+
+	@Contract(pure = true)
+	public int getNumberOfColumns() {
+		return columns.length;
+	}
+
+	@Contract(pure = true)
+	public boolean hasUnknownTopCard(int column) {
+		return !columns[column].isEmpty() && Card.isUnknown(columns[column].lastCard());
+	}
+
+	@Contract(pure = true)
+	public int getNumberOfUnknownCards(int column) {
+		return columns[column].getNumberOfUnknownCards();
+	}
+
+	/**
+	 * Returns the cards that can currently be moved from the given column as a card set; see
+	 * {@link Card#toMask(int)}.
+	 */
+	@Contract(pure = true)
+	public long getReachableCardsMask(int column) {
+		return columns[column].reachableCardsMask();
+	}
+
+	/**
+	 * Returns every card not face up anywhere in the game as a card set; see {@link Card#toMask(int)}. These are the
+	 * cards that may be face down in the columns, along with any cards that are not part of the game at all.
+	 */
+	@Contract(pure = true)
+	public long getUnseenCardsMask() {
+		long unseenCards = 0;
+		for (int i = 0; i < Card.NumberOfCards; i++)
+			if (cardContainers[i] == NOWHERE) unseenCards |= 1L << i;
+		return unseenCards;
+	}
+
+	private void recordMove(int source, int destination, int numCards, int stockIndex, int waste) {
+		if (historySize == historySources.length) {
+			int capacity = 2 * historySize;
+			historySources = Arrays.copyOf(historySources, capacity);
+			historyDestinations = Arrays.copyOf(historyDestinations, capacity);
+			historyNumCards = Arrays.copyOf(historyNumCards, capacity);
+			historyStockIndices = Arrays.copyOf(historyStockIndices, capacity);
+			historyWastes = Arrays.copyOf(historyWastes, capacity);
+		}
+		historySources[historySize] = source;
+		historyDestinations[historySize] = destination;
+		historyNumCards[historySize] = numCards;
+		historyStockIndices[historySize] = stockIndex;
+		historyWastes[historySize] = waste;
+		historySize++;
+	}
+
+	/**
+	 * Moves the top numCards cards of one column or foundation onto another, keeping their order. The move is not
+	 * checked; it must be known to be legal, e.g. because it is being undone.
+	 */
+	private void transfer(int from, int to, int numCards) {
+		int position = containers[from].getNumberOfCards() - numCards;
+		for (int i = 0; i < numCards; i++)
+			push(to, cardAt(from, position + i));
+		pop(from, numCards);
+	}
+
+	private void push(int container, int card) {
+		if (container < columns.length) columns[container].push(card);
+		else foundations[container - columns.length].push(card);
+	}
+
+	private void pop(int container, int numCards) {
+		if (container < columns.length) columns[container].pop(numCards);
+		else foundations[container - columns.length].pop(numCards);
+	}
+
+	private int cardAt(int container, int position) {
+		if (container < columns.length) return columns[container].cardAt(position);
+		if (container == stockIndex) return stock.cardAt(position);
+		return foundations[container - columns.length].cardAt(position);
+	}
+
+	/**
+	 * Returns a 64-bit Zobrist key of the current state. Like hashCode, equal states have equal keys, but unlike
+	 * hashCode, it is wide enough that distinct states met during a search practically never share a key.
+	 * <p>
+	 * The key is updated by every move and undo, so this is O(1).
+	 */
+	@Contract(pure = true)
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	/**
+	 * Returns a 64-bit key of the current state in a canonical form, which is the same for states that differ only in
+	 * the order of the columns, the order of the foundations, or by the two suits of a colour being swapped
+	 * everywhere, keeping the order of the stock. Such states are won or lost alike, so a search can store them as
+	 * one.
+	 * <p>
+	 * Face-down cards are all alike to the key, so states whose columns are ordered differently may have different
+	 * cards face down in the same places. When the face-down cards are known, e.g. because a search turns them over
+	 * as the cards of one particular deal, {@link #getZobristKey()} should be used instead.
+	 * <p>
+	 * The key is updated by every move and undo, so this is O(1).
+	 */
+	@Contract(pure = true)
+	public long getCanonicalKey() {
+		long key = Long.MAX_VALUE;
+		for (int symmetry = 0; symmetry < Zobrist.NUM_SUIT_SYMMETRIES; symmetry++)
+			key = Math.min(key, canonicalKeys[symmetry] ^ canonicalColumnSums[symmetry]);
+		return key;
+	}
+
+	/**
+	 * Updates the Zobrist key and the card locations after numCards cards, the lowest of which is card, have been
+	 * moved from the top of one container to the top of another, or from or to the given index of the stock.
+	 */
+	private void cardsMoved(int card, int numCards, int from, int to, int wasteBefore, int stockPosition) {
+		int fromPosition = from == stockIndex ? stockPosition : containers[from].getNumberOfCards();
+		int toPosition = to == stockIndex ? stockPosition : containers[to].getNumberOfCards() - numCards;
+		for (int i = 0; i < numCards; i++) {
+			int movedCard = i == 0 ? card : cardAt(to, toPosition + i);
+			zobristKey ^= zobristKeyOf(movedCard, from, fromPosition + i) ^ zobristKeyOf(movedCard, to, toPosition + i);
+			toggleCanonicalKeys(movedCard, from, fromPosition + i);
+			toggleCanonicalKeys(movedCard, to, toPosition + i);
+			locateCard(movedCard, to, toPosition + i);
+		}
+		long wasteKeys = Zobrist.waste(wasteBefore) ^ Zobrist.waste(stock.waste());
+		zobristKey ^= wasteKeys;
+		for (int symmetry = 0; symmetry < Zobrist.NUM_SUIT_SYMMETRIES; symmetry++)
+			canonicalKeys[symmetry] ^= wasteKeys;
+	}
+
+	/**
+	 * Adds the card at the given place to the canonical keys, or removes it if it is already there. A card of the
+	 * stock must be toggled right after it is taken from or put back at the given index.
+	 */
+	private void toggleCanonicalKeys(int card, int container, int position) {
+		if (container == stockIndex) {
+			toggleCanonicalStockKeys(card, position);
+			return;
+		}
+		for (int symmetry = 0; symmetry < Zobrist.NUM_SUIT_SYMMETRIES; symmetry++) {
+			int relabeled = Zobrist.relabel(card, symmetry);
+			if (container < columns.length) {
+				long before = canonicalColumnKeys[symmetry][container];
+				canonicalColumnKeys[symmetry][container] ^= Zobrist.canonicalColumn(position, relabeled);
+				canonicalColumnSums[symmetry] += canonicalColumnKeys[symmetry][container] - before;
+			} else {
+				canonicalKeys[symmetry] ^= Zobrist.canonicalFoundation(relabeled);
+			}
+		}
+	}
+
+	/**
+	 * The stock is keyed by which card lies on which, see {@link Zobrist#canonicalStock(int, int)}, so taking a card
+	 * from between two others, or putting it back, swaps the two keys of it for the key of the two lying on each other.
+	 */
+	private void toggleCanonicalStockKeys(int card, int index) {
+		int size = stock.getNumberOfCards();
+		int below = index == 0 ? Zobrist.BOTTOM_OF_STOCK : stock.cardAt(index - 1);
+		int aboveIndex = index < size && stock.cardAt(index) == card ? index + 1 : index;
+		boolean isTopCard = aboveIndex == size;
+		for (int symmetry = 0; symmetry < Zobrist.NUM_SUIT_SYMMETRIES; symmetry++) {
+			int relabeled = Zobrist.relabel(card, symmetry);
+			int relabeledBelow = below == Zobrist.BOTTOM_OF_STOCK ? below : Zobrist.relabel(below, symmetry);
+			canonicalKeys[symmetry] ^= Zobrist.canonicalStock(relabeledBelow, relabeled);
+			if (isTopCard) continue;
+			int relabeledAbove = Zobrist.relabel(stock.cardAt(aboveIndex), symmetry);
+			canonicalKeys[symmetry] ^= Zobrist.canonicalStock(relabeled, relabeledAbove)
+					^ Zobrist.canonicalStock(relabeledBelow, relabeledAbove);
+		}
+	}
+
+	private void computeCanonicalKeys() {
+		for (int symmetry = 0; symmetry < Zobrist.NUM_SUIT_SYMMETRIES; symmetry++) {
+			canonicalKeys[symmetry] = Zobrist.waste(stock.waste());
+			int below = Zobrist.BOTTOM_OF_STOCK;
+			for (int i = 0; i < stock.getNumberOfCards(); i++) {
+				int relabeled = Zobrist.relabel(stock.cardAt(i), symmetry);
+				canonicalKeys[symmetry] ^= Zobrist.canonicalStock(below, relabeled);
+				below = relabeled;
+			}
+		}
+		for (int container = 0; container < stockIndex; container++)
+			for (int position = 0; position < containers[container].getNumberOfCards(); position++)
+				toggleCanonicalKeys(cardAt(container, position), container, position);
+	}
+
+	private long zobristKeyOf(int card, int container, int position) {
+		if (container == stockIndex) return Zobrist.stock(card);
+		if (container < columns.length) return Zobrist.column(container, position, card);
+		return Zobrist.foundation(container - columns.length, card);
+	}
+
+	private void locateCard(int card, int container, int position) {
+		cardContainers[Card.toIndex(card)] = (byte) container;
+		cardPositions[Card.toIndex(card)] = (byte) position;
+	}
+
+	private void locateCards() {
+		Arrays.fill(cardContainers, NOWHERE);
+		for (int container = 0; container < stockIndex; container++) {
+			for (int position = 0; position < containers[container].getNumberOfCards(); position++) {
+				int card = cardAt(container, position);
+				if (!Card.isUnknown(card)) locateCard(card, container, position);
+			}
+		}
+		for (int i = 0; i < stock.getNumberOfCards(); i++)
+			locateCard(stock.cardAt(i), stockIndex, i);
+	}
+
+	private long computeZobristKey() {
+		long key = Zobrist.waste(stock.waste());
+		for (int i = 0; i < stock.getNumberOfCards(); i++)
+			key ^= Zobrist.stock(stock.cardAt(i));
+		for (int i = 0; i < columns.length; i++)
+			for (int position = 0; position < columns[i].getNumberOfCards(); position++)
+				key ^= Zobrist.column(i, position, columns[i].cardAt(position));
+		for (int i = 0; i < foundations.length; i++)
+			for (int position = 0; position < foundations[i].getNumberOfCards(); position++)
+				key ^= Zobrist.foundation(i, foundations[i].cardAt(position));
+		return key;
+	}
+
+	/**
+	 * Returns the index of the container the card is in, if it can be moved from there.
+	 */
+	private int findSource(int card) throws IllegalMoveException {
+		int container = Card.isUnknown(card) ? NOWHERE : cardContainers[Card.toIndex(card)];
+		if (container == NOWHERE || !isReachable(card, container))
+			throw new IllegalMoveException("Error: Cannot find card " + Card.asString(card) + " in any reachable card container.");
+		return container;
+	}
+
+	private boolean isReachable(int card, int container) {
+		if (container == stockIndex) return stock.canTake(card); // Cheaper than the stock's card set, which may be outdated
+		return (containers[container].reachableCardsMask() & Card.toMask(card)) != 0;
+	}
+
+	/**
+	 * Returns the index of the container the move puts its card in.
+	 */
+	private int findDestination(Move move) throws IllegalMoveException {
 		if (move.destination().isPresent()) {
-			for (Column column : columns)
-				if (column.asDestination().equals(move.destination())) return column;
-			for (Foundation foundation : foundations)
-				if (foundation.asDestination().equals(move.destination())) return foundation;
-			throw new IllegalMoveException("Error: Cannot find destination in move.\nMove: " + move);
+			int destinationCard = move.destination().get();
+			int container = Card.isUnknown(destinationCard) ? NOWHERE : cardContainers[Card.toIndex(destinationCard)];
+			if (container == NOWHERE || container == stockIndex
+					|| cardPositions[Card.toIndex(destinationCard)] != containers[container].getNumberOfCards() - 1)
+				throw new IllegalMoveException("Error: Cannot find destination in move.\nMove: " + move);
+			return container;
 		}
 
 		if ((move.movedCard() & Card.RankMask) == Card.King) {
-			for (Column column : columns)
-				if (column.isEmpty()) return column;
+			for (int i = 0; i < columns.length; i++)
+				if (columns[i].isEmpty()) return i;
 		}
 
 		if ((move.movedCard() & Card.RankMask) == Card.Ace) {
-			for (Foundation foundation : foundations)
-				if (foundation.isEmpty()) return foundation;
+			for (int i = 0; i < foundations.length; i++)
+				if (foundations[i].isEmpty()) return columns.length + i;
 		}
 
 		throw new IllegalMoveException("Error: Cannot find destination in move.\nMove: " + move);
@@ -122,89 +506,245 @@ public final class Klondike implements Solitaire {
 		return possibleMoves().contains(move);
 	}
 
+	/**
+	 * An upper bound on the number of possible moves in any position. A card can be moved to at most one foundation
+	 * and, as only two cards of the opposite colour are one rank higher, to at most two columns. All moves to empty
+	 * columns are the same move.
+	 */
+	public static final int MAX_NUM_POSSIBLE_MOVES = 3 * Card.NumberOfCards;
+
 	@Override
 	@NotNull
 	public Set<Move> possibleMoves() {
-		Set<Move> moves = new HashSet<>(24);
-		// This will probably be too slow, but let's not optimise prematurely
+		int[] encodedMoves = new int[MAX_NUM_POSSIBLE_MOVES];
+		int numMoves = possibleMoves(encodedMoves);
+		Set<Move> moves = new HashSet<>(2 * numMoves);
+		for (int i = 0; i < numMoves; i++)
+			moves.add(Move.decode(encodedMoves[i]));
+		return moves;
+	}
+
+	/**
+	 * Writes every possible move, encoded as by {@link Move#encode(int, int)}, into the given buffer and returns the
+	 * number of moves written. Unlike {@link #possibleMoves()}, this allocates nothing, so the buffer can be reused
+	 * from position to position.
+	 *
+	 * @param moves buffer of length at least {@link #MAX_NUM_POSSIBLE_MOVES}
+	 * @return the number of moves written to the start of the buffer
+	 */
+	public int possibleMoves(int @NotNull [] moves) {
+		int numMoves = 0;
 		for (Column column : columns) {
-			moves.addAll(columnMoves(column));
+			if (column.isEmpty() || Card.isUnknown(column.lastCard())) continue;
+			numMoves = addMoveToFoundation(column.lastCard(), moves, numMoves);
+			for (int position = column.getNumberOfCards() - 1; position >= 0; position--) {
+				int card = column.cardAt(position);
+				if (Card.isUnknown(card)) break;
+				numMoves = addMovesToColumns(card, column, moves, numMoves);
+			}
 		}
 
 		for (Foundation foundation : foundations) {
-			moves.addAll(foundationMoves(foundation));
+			if (foundation.isEmpty()) continue;
+			numMoves = addMovesToColumns(foundation.lastCard(), null, moves, numMoves);
 		}
 
-		moves.addAll(stockMoves());
-		return moves;
+		for (int position = 0; position < stock.getNumberOfCards(); position++) {
+			if (!stock.isReachable(position)) continue;
+			int card = stock.cardAt(position);
+			numMoves = addMoveToFoundation(card, moves, numMoves);
+			numMoves = addMovesToColumns(card, null, moves, numMoves);
+		}
+		return numMoves;
 	}
 
-	private Collection<Move> columnMoves(Column column) {
-		Collection<Move> moves = new ArrayList<>();
-
-		if (column.isEmpty())
-			return moves;
-
-		int topCard = column.lastCard();
+	private int addMoveToFoundation(int card, int @NotNull [] moves, int numMoves) {
 		for (Foundation foundation : foundations) {
-			if (!foundation.canAcceptCard(topCard))
-				continue;
-			moves.add(new Move(topCard, foundation.asDestination()));
+			if (!foundation.canAcceptCard(card)) continue;
+			moves[numMoves++] = foundation.isEmpty() ? Move.encode(card) : Move.encode(card, foundation.lastCard());
 			break;
 		}
+		return numMoves;
+	}
 
-		Set<Integer> reachableCards = column.reachableCards();
-		for (Integer card : reachableCards) {
-			for (Column kloumn : this.columns) {
-				if (kloumn == column) continue;
-				if (!kloumn.canAcceptCard(card)) continue;
-				moves.add(new Move(card, kloumn.asDestination()));
+	private int addMovesToColumns(int card, Column source, int @NotNull [] moves, int numMoves) {
+		boolean addedMoveToEmptyColumn = false;
+		for (Column column : columns) {
+			if (column == source || !column.canAcceptCard(card)) continue;
+			if (!column.isEmpty()) {
+				moves[numMoves++] = Move.encode(card, column.lastCard());
+			} else if (!addedMoveToEmptyColumn) {
+				moves[numMoves++] = Move.encode(card);
+				addedMoveToEmptyColumn = true;
 			}
 		}
-
-		return moves;
+		return numMoves;
 	}
 
-	private Collection<Move> stockMoves() {
-		Collection<Move> moves = new ArrayList<>();
+	/**
+	 * Returned by {@link #safeMoveToFoundation()} when there is no safe move.
+	 */
+	public static final int NO_SAFE_MOVE = -1;
 
-		if (stock.isEmpty()) {
-			return moves;
+	/**
+	 * Returns a move of a column's top card to a foundation that can never be a mistake, encoded as by
+	 * {@link Move#encode(int, int)}, or {@link #NO_SAFE_MOVE} if there is none. Such a move can be made at once
+	 * instead of being searched among the other moves.
+	 * <p>
+	 * A card is only needed in the columns to hold cards of the opposite colour one rank lower, so it is safe to move
+	 * up once both of those are in the foundations. Aces and twos are always safe, as an ace is never better off
+	 * anywhere but a foundation. Cards in the stock are left alone, as taking one changes which others can be reached.
+	 */
+	@Contract(pure = true)
+	public int safeMoveToFoundation() {
+		for (Column column : columns) {
+			if (column.isEmpty() || Card.isUnknown(column.lastCard())) continue;
+			int card = column.lastCard();
+			if (!isSafeToMoveToFoundation(card)) continue;
+			for (Foundation foundation : foundations)
+				if (foundation.canAcceptCard(card))
+					return foundation.isEmpty() ? Move.encode(card) : Move.encode(card, foundation.lastCard());
 		}
+		return NO_SAFE_MOVE;
+	}
+
+	private boolean isSafeToMoveToFoundation(int card) {
+		int rank = card & Card.RankMask;
+		if (rank <= Card.Two) return true;
+		int oppositeColour = (card & Card.Colour) ^ Card.Colour;
+		return isInFoundation(rank - 1 | oppositeColour) && isInFoundation(rank - 1 | oppositeColour | Card.Type);
+	}
+
+	private boolean isInFoundation(int card) {
+		int container = cardContainers[Card.toIndex(card)];
+		return container >= columns.length && container < stockIndex;
+	}
+
+	/**
+	 * Returns every card that can currently be moved, from any column, foundation or the stock, as a card set; see
+	 * {@link Card#toMask(int)}.
+	 */
+	@Contract(pure = true)
+	public long getReachableCardsMask() {
+		long reachableCards = stock.reachableCardsMask();
+		for (Column column : columns)
+			reachableCards |= column.reachableCardsMask();
+		for (Foundation foundation : foundations)
+			reachableCards |= foundation.reachableCardsMask();
+		return reachableCards;
+	}
+
+	@Contract(pure = true)
+	public int getNumberOfCardsInFoundations() {
+		int numCards = 0;
+		for (Foundation foundation : foundations)
+			numCards += foundation.getNumberOfCards();
+		return numCards;
+	}
+
+	@Contract(pure = true)
+	public int getNumberOfCardsInStock() {
+		return stock.getNumberOfCards();
+	}
 
-		Set<Integer> stockCards = stock.reachableCards();
-		for (Integer card : stockCards) {
-			for (Foundation foundation : foundations) {
-				if (foundation.canAcceptCard(card)) {
-					moves.add(new Move(card, foundation.asDestination()));
-					break;
-				}
+	@Contract(pure = true)
+	public int getNumberOfUnknownCards() {
+		int numUnknown = 0;
+		for (Column column : columns)
+			numUnknown += column.getNumberOfUnknownCards();
+		return numUnknown;
+	}
+
+	/**
+	 * Returns the number of columns whose top card is face down, i.e. the number of cards that can be turned over
+	 * without making another move.
+	 */
+	@Contract(pure = true)
+	public int getNumberOfRevealableCards() {
+		int numRevealable = 0;
+		for (Column column : columns)
+			if (!column.isEmpty() && Card.isUnknown(column.lastCard())) numRevealable++;
+		return numRevealable;
+	}
+
+	@Contract(pure = true)
+	public int getNumberOfEmptyColumns() {
+		int numEmpty = 0;
+		for (Column column : columns)
+			if (column.isEmpty()) numEmpty++;
+		return numEmpty;
+	}
+
+	/**
+	 * Returns whether the game, with the given cards face down, can be proven never to be won by a quick check of the
+	 * columns. If this returns false, the game may still be lost.
+	 * <p>
+	 * A card covered by a higher card of its own suit has to be uncovered before that card can go to a foundation, so
+	 * the two have to be separated by moving off the cards from just above the lower card up. If every one of those
+	 * cards can only be moved onto cards further down the same column, the game is lost, as is every game played on
+	 * from it. As the face-up cards of a column are in descending order, the higher card is always face down.
+	 *
+	 * @param hiddenCards for each column, the cards of its face-down places from the bottom up, any of which may be
+	 *                    {@link Card#Unknown}. There may be more cards than places, e.g. if the cards were dealt before
+	 *                    some of the places were turned over.
+	 */
+	@Contract(pure = true)
+	public boolean isDeadEnd(int @NotNull [] @NotNull [] hiddenCards) {
+		if (hiddenCards.length != columns.length)
+			throw new IllegalArgumentException("Error: Expected hidden cards for " + columns.length + " columns, was " + hiddenCards.length);
+		for (int column = 0; column < columns.length; column++)
+			if (hasBlockedCard(columns[column], hiddenCards[column])) return true;
+		return false;
+	}
+
+	private static boolean hasBlockedCard(@NotNull Column column, int @NotNull [] hiddenCards) {
+		int numUnknown = column.getNumberOfUnknownCards();
+		if (hiddenCards.length < numUnknown)
+			throw new IllegalArgumentException("Error: Expected at least " + numUnknown + " hidden cards, was " + hiddenCards.length);
+		long cardsBelow = 0;
+		long separableOnlyByBelow = 0; // The cards below whose every card up to here can only be moved onto cards below
+		int cardBelow = Card.Unknown;
+		for (int position = 0; position < column.getNumberOfCards(); position++) {
+			int card = position < numUnknown ? hiddenCards[position] : column.cardAt(position);
+			if (Card.isUnknown(card)) {
+				separableOnlyByBelow = 0;
+				cardBelow = card;
+				continue;
 			}
-			for (Column column : columns) {
-				if (column.canAcceptCard(card)) {
-					moves.add(new Move(card, column.asDestination()));
-				}
+			if (isStuck(card, cardsBelow)) {
+				if (!Card.isUnknown(cardBelow)) separableOnlyByBelow |= Card.toMask(cardBelow);
+				if ((separableOnlyByBelow & lowerCardsOfSuit(card)) != 0) return true;
+			} else {
+				separableOnlyByBelow = 0;
 			}
+			cardsBelow |= Card.toMask(card);
+			cardBelow = card;
 		}
-		return moves;
+		return false;
 	}
 
-	private Collection<Move> foundationMoves(Foundation foundation) {
-		Collection<Move> moves = new ArrayList<>();
+	/**
+	 * Returns whether every card the given card can be moved onto is among the given cards below it.
+	 */
+	private static boolean isStuck(int card, long cardsBelow) {
+		int rank = card & Card.RankMask;
+		if (rank == Card.King) return false; // It can be moved to an empty column
+		int destination = rank + 1 | (card & Card.Colour) ^ Card.Colour;
+		long destinations = Card.toMask(destination) | Card.toMask(destination | Card.Type);
+		return (cardsBelow & destinations) == destinations;
+	}
 
-		if (foundation.isEmpty()) {
-			return moves;
-		}
+	private static long lowerCardsOfSuit(int card) {
+		int ace = card & Card.SuitMask;
+		return Card.toMask(card) - Card.toMask(ace); // The bits from the ace of the suit up to, but not including, the card
+	}
 
-		Set<Integer> foundationCards = foundation.reachableCards();
-		assert foundationCards.size() == 1;
-		Integer card = foundationCards.iterator().next();
-		for (Column column : columns) {
-			if (column.canAcceptCard(card)) {
-				moves.add(new Move(card, column.asDestination()));
-			}
-		}
-		return moves;
+	/**
+	 * Returns whether every card has been moved to the foundations, i.e. whether the game has been won.
+	 */
+	@Contract(pure = true)
+	public boolean isSolved() {
+		return stock.isEmpty() && getNumberOfEmptyColumns() == columns.length;
 	}
 
 	/**
@@ -224,13 +764,20 @@ public final class Klondike implements Solitaire {
 
 	@Override
 	public int hashCode() {
-		int result = stock.hashCode();
-		result = 31 * result + Arrays.hashCode(foundations);
-		result = 31 * result + Arrays.hashCode(columns);
-		return result;
+		return Long.hashCode(zobristKey);
 	}
 
+	/**
+	 * Returns a game in the same state as this, but sharing no containers with it, so that either can be played
+	 * without affecting the other. The move history is not copied.
+	 */
 	public Klondike deepCopy() {
-		return new Klondike(foundations.clone(), columns.clone(), new Stock(stock));
+		Foundation[] foundations = new Foundation[this.foundations.length];
+		for (int i = 0; i < foundations.length; i++)
+			foundations[i] = new Foundation(this.foundations[i]);
+		Column[] columns = new Column[this.columns.length];
+		for (int i = 0; i < columns.length; i++)
+			columns[i] = new Column(this.columns[i]);
+		return new Klondike(foundations, columns, new Stock(stock));
 	}
 }
@@ -0,0 +1,117 @@
+package model.klondike;
+
+import model.Card;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the cards of a {@link Klondike} game, packed into a single byte array of roughly one byte
+ * per known card. Unlike a Klondike game, which spreads its state over a dozen objects and carries its move history
+ * around, a state is small and cheap to hash and compare, making it suitable for storing large numbers of positions.
+ * <p>
+ * The layout of the bytes is:
+ * <pre>
+ * number of foundations, number of columns
+ * for each foundation: top card + 1, or 0 if empty
+ * for each column:     number of unknown cards, number of known cards, the known cards from bottom to top
+ * stock:               waste + 1, number of cards, the cards
+ * </pre>
+ * A foundation only ever holds the cards from the ace up to its top card, so the top card is all that is stored. The
+ * unknown cards of a column are always at its bottom, so they are stored as a count.
+ */
+public final class KlondikeState {
+	private final byte @NotNull [] packed;
+	private final long zobristKey;
+
+	private KlondikeState(byte @NotNull [] packed, long zobristKey) {
+		this.packed = packed;
+		this.zobristKey = zobristKey;
+	}
+
+	@Contract("_ -> new")
+	public static @NotNull KlondikeState of(@NotNull Klondike game) {
+		int length = 2 + game.foundations.length + 2 + game.stock.getNumberOfCards();
+		for (Column column : game.columns)
+			length += 2 + column.getNumberOfCards() - column.getNumberOfUnknownCards();
+
+		byte[] packed = new byte[length];
+		int i = 0;
+		packed[i++] = (byte) game.foundations.length;
+		packed[i++] = (byte) game.columns.length;
+		for (Foundation foundation : game.foundations)
+			packed[i++] = (byte) (foundation.isEmpty() ? 0 : foundation.cardAt(foundation.getNumberOfCards() - 1) + 1);
+		for (Column column : game.columns) {
+			int numUnknown = column.getNumberOfUnknownCards();
+			packed[i++] = (byte) numUnknown;
+			packed[i++] = (byte) (column.getNumberOfCards() - numUnknown);
+			for (int position = numUnknown; position < column.getNumberOfCards(); position++) {
+				int card = column.cardAt(position);
+				if (Card.isUnknown(card))
+					throw new IllegalArgumentException("Error: Cannot pack column with unknown card above known card: " + column);
+				packed[i++] = (byte) card;
+			}
+		}
+		Stock stock = game.stock;
+		packed[i++] = (byte) (stock.waste() + 1);
+		packed[i++] = (byte) stock.getNumberOfCards();
+		for (int position = 0; position < stock.getNumberOfCards(); position++)
+			packed[i++] = (byte) stock.cardAt(position);
+
+		return new KlondikeState(packed, game.getZobristKey());
+	}
+
+	/**
+	 * Returns a new game in this state. The game has no move history.
+	 */
+	@Contract(" -> new")
+	public @NotNull Klondike toKlondike() {
+		int i = 0;
+		Foundation[] foundations = new Foundation[packed[i++]];
+		Column[] columns = new Column[packed[i++]];
+		for (int f = 0; f < foundations.length; f++) {
+			int topCard = packed[i++] - 1;
+			foundations[f] = topCard < 0 ? new Foundation() : new Foundation(topCard);
+		}
+		for (int c = 0; c < columns.length; c++) {
+			int numUnknown = packed[i++];
+			int[] knownCards = new int[packed[i++]];
+			for (int k = 0; k < knownCards.length; k++)
+				knownCards[k] = packed[i++];
+			columns[c] = new Column(numUnknown, knownCards);
+		}
+		int waste = packed[i++] - 1;
+		int[] stockCards = new int[packed[i++]];
+		for (int k = 0; k < stockCards.length; k++)
+			stockCards[k] = packed[i++];
+		return new Klondike(foundations, columns, new Stock(stockCards, waste));
+	}
+
+	/**
+	 * Returns the Zobrist key of the game this state was taken from; see {@link Klondike#getZobristKey()}.
+	 */
+	@Contract(pure = true)
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	@Contract(pure = true)
+	public int getSizeInBytes() {
+		return packed.length;
+	}
+
+	@Contract(value = "null -> false", pure = true)
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		KlondikeState that = (KlondikeState) o;
+		return zobristKey == that.zobristKey && Arrays.equals(packed, that.packed);
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(zobristKey);
+	}
+}
@@ -0,0 +1,98 @@
+package model.klondike;
+
+import model.Move;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the positions at the end of every sequence of a given number of moves from a position, which chess
+ * programmers call perft. Since the counts of a position never change, they check that a rewrite of the move
+ * generation still finds exactly the same moves, and the time taken to count them measures how fast it is.
+ * <p>
+ * Only {@link Klondike#possibleMoves(int[])}, {@link Klondike#makeMove(Move)} and {@link Klondike#undoMove()} are
+ * used, so face-down cards stay face down when uncovered. Sequences are counted, not distinct positions, so a position
+ * reached in two ways is counted twice.
+ */
+public final class Perft {
+	private Perft() {
+	}
+
+	/**
+	 * Returns the number of sequences of depth moves from the given position. Positions with no moves before depth is
+	 * reached count for none. The game is left in the state it was given in.
+	 */
+	public static long perft(@NotNull Klondike game, int depth) {
+		validate(game, depth);
+		return count(game, depth, new int[Math.max(depth, 1)][Klondike.MAX_NUM_POSSIBLE_MOVES]);
+	}
+
+	/**
+	 * Like {@link #perft(Klondike, int)}, but the moves of the given position are counted in parallel, each by its own
+	 * copy of the game.
+	 *
+	 * @param parallelism the number of threads to count with
+	 */
+	public static long perft(@NotNull Klondike game, int depth, int parallelism) {
+		validate(game, depth);
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Error: parallelism must be >= 1, was " + parallelism);
+		if (depth <= 1 || parallelism == 1) return perft(game, depth);
+
+		int[] moves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		int numMoves = game.possibleMoves(moves);
+		List<Callable<Long>> tasks = new ArrayList<>(numMoves);
+		for (int i = 0; i < numMoves; i++) {
+			Klondike copy = game.deepCopy();
+			Move move = Move.decode(moves[i]);
+			tasks.add(() -> {
+				copy.makeMove(move);
+				return count(copy, depth - 1, new int[depth - 1][Klondike.MAX_NUM_POSSIBLE_MOVES]);
+			});
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			long numLeaves = 0;
+			for (Future<Long> result : pool.invokeAll(tasks))
+				numLeaves += result.get();
+			return numLeaves;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Error: Interrupted while counting", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error: Counting failed", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void validate(Klondike game, int depth) {
+		if (game == null)
+			throw new IllegalArgumentException("Error: game must not be null");
+		if (depth < 0)
+			throw new IllegalArgumentException("Error: depth must be >= 0, was " + depth);
+	}
+
+	/**
+	 * @param moveBuffers one move buffer per ply, so that counting does not allocate
+	 */
+	private static long count(@NotNull Klondike game, int depth, int @NotNull [] @NotNull [] moveBuffers) {
+		if (depth == 0) return 1;
+		int[] moves = moveBuffers[depth - 1];
+		int numMoves = game.possibleMoves(moves);
+		if (depth == 1) return numMoves; // Each move leads to one position, so there is no need to make them
+		long numLeaves = 0;
+		for (int i = 0; i < numMoves; i++) {
+			game.makeMove(Move.decode(moves[i]));
+			numLeaves += count(game, depth - 1, moveBuffers);
+			game.undoMove();
+		}
+		return numLeaves;
+	}
+}
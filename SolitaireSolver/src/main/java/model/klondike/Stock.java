@@ -6,8 +6,6 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import utils.ArrayUtils;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
@@ -15,9 +13,28 @@ import java.util.function.Function;
 import static model.Card.isUnknown;
 
 public class Stock implements CardContainer {
-	private final int[] cards;
+	/**
+	 * A gap buffer; the cards of the stock in order, with a gap of unused slots starting at {@link #gapStart}. Taking
+	 * a card or putting one back only moves the gap to where the card is, and as a move is usually undone right after
+	 * it is made, the gap is usually there already. Thus the cards above it need not be shifted along every time.
+	 */
+	private final int @NotNull [] cards;
 	private int size;
+	private int gapStart;
+	/**
+	 * For each card, indexed by {@link Card#toIndex(int)}, the slot of {@link #cards} holding it, so that finding a
+	 * card needs no search. Only meaningful for the cards in {@link #containedCards}.
+	 */
+	private final byte @NotNull [] slots;
+	private long containedCards;
 	private int waste;
+	/**
+	 * The cards of {@link #reachableCards()} as a card set, and for each index the number of draws needed to reach the
+	 * card there. Both only change when a card is taken or put back, and are only recomputed when next asked for.
+	 */
+	private long reachableCards;
+	private final byte @NotNull [] drawsToReach;
+	private boolean reachableCardsOutdated = true;
 
 	public static final Stock Empty = new Stock();
 
@@ -31,16 +48,35 @@ public class Stock implements CardContainer {
 			if (isUnknown(card))
 				throw new IllegalArgumentException("Error: Stock cannot be updated, thus card may not be unknown");
 		}
-		this.cards = cards;
+		this.cards = cards.clone();
 		size = cards.length;
+		gapStart = size;
+		slots = new byte[Card.NumberOfCards];
+		for (int i = 0; i < size; i++) {
+			slots[Card.toIndex(cards[i])] = (byte) i;
+			containedCards |= Card.toMask(cards[i]);
+		}
 		waste = getNumberOfCards() - 1;
+		drawsToReach = new byte[cards.length];
+	}
+
+	Stock(int @NotNull [] cards, int waste) {
+		this(cards);
+		if (waste < -1 || waste >= size())
+			throw new IllegalArgumentException("Error: Waste must be in range [-1; " + size() + "[, was " + waste);
+		this.waste = waste;
 	}
 
-	@SuppressWarnings("CopyConstructorMissesField")
 	public Stock(Stock stock) {
-		this.cards = stock.cards;
+		this.cards = stock.cards.clone();
 		this.size = stock.size;
+		this.gapStart = stock.gapStart;
+		this.slots = stock.slots.clone();
+		this.containedCards = stock.containedCards;
 		this.waste = stock.waste;
+		this.reachableCards = stock.reachableCards;
+		this.drawsToReach = stock.drawsToReach.clone();
+		this.reachableCardsOutdated = stock.reachableCardsOutdated;
 	}
 
 	@Override
@@ -61,10 +97,86 @@ public class Stock implements CardContainer {
 	}
 
 	@Contract(pure = true)
-	private int waste() {
+	int waste() {
 		return waste;
 	}
 
+	/**
+	 * Returns whether the card at the given index is in {@link #reachableCards()}, without building the set.
+	 */
+	@Contract(pure = true)
+	boolean isReachable(int index) {
+		return index >= waste() || index % 3 == 2;
+	}
+
+	/**
+	 * Returns the number of times cards must be drawn, counting turning the waste over as one, before the card at the
+	 * given index can be played. The card on top of the waste takes no draws.
+	 *
+	 * @throws IllegalArgumentException if the card at the given index is not reachable
+	 */
+	@Contract(pure = true)
+	int drawsToReach(int index) {
+		if (index < 0 || index >= size() || !isReachable(index))
+			throw new IllegalArgumentException("Error: Card at index " + index + " is not reachable in Stock: " + this);
+		updateReachableCards();
+		return drawsToReach[index];
+	}
+
+	/**
+	 * Recomputes {@link #reachableCards} and {@link #drawsToReach} if the cards or the waste have changed. Each draw
+	 * turns over three cards, so a card beyond the waste is reached after every third card up to it. Cards before
+	 * the waste can only be reached after drawing the rest of the stock, turning the waste over, and drawing from the
+	 * start again.
+	 */
+	private void updateReachableCards() {
+		if (!reachableCardsOutdated) return;
+		reachableCardsOutdated = false;
+		reachableCards = 0;
+		int drawsToTurnOver = (size() - 1 - waste() + 2) / 3 + 1;
+		for (int i = 0; i < size(); i++) {
+			if (i >= waste()) drawsToReach[i] = (byte) ((i - waste() + 2) / 3);
+			else if (i % 3 == 2) drawsToReach[i] = (byte) (drawsToTurnOver + (i + 1) / 3);
+			else continue;
+			reachableCards |= Card.toMask(cardAt(i));
+		}
+	}
+
+	@Contract(pure = true)
+	int cardAt(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException("Error: Index " + index + " is out of bounds for Stock: " + this);
+		return cards[slotOf(index)];
+	}
+
+	/**
+	 * Returns the index of the given card, which must be in the stock.
+	 */
+	@Contract(pure = true)
+	int indexOf(int card) {
+		if ((containedCards & Card.toMask(card)) == 0)
+			throw new IllegalArgumentException("Error: Card " + Card.asString(card) + " is not in Stock: " + this);
+		int slot = slots[Card.toIndex(card)];
+		return slot < gapStart ? slot : slot - gapLength();
+	}
+
+	/**
+	 * Returns whether the given card is in the stock and can be taken. Unlike {@link #reachableCardsMask()}, this never
+	 * has to recompute the reachable cards.
+	 */
+	@Contract(pure = true)
+	boolean canTake(int card) {
+		return (containedCards & Card.toMask(card)) != 0 && isReachable(indexOf(card));
+	}
+
+	private int slotOf(int index) {
+		return index < gapStart ? index : index + gapLength();
+	}
+
+	private int gapLength() {
+		return cards.length - size;
+	}
+
 	private boolean undoing = false;
 
 	@Override
@@ -103,54 +215,79 @@ public class Stock implements CardContainer {
 		stockMoveMetaInformation.destination.move(card, this);
 		undoing = false;
 		waste = stockMoveMetaInformation.waste;
+		reachableCardsOutdated = true;
 	}
 
 	@Contract(pure = true)
 	public @NotNull Set<Integer> reachableCards() {
-		if (isEmpty()) return Set.of();
-
-		Set<Integer> reachableCards = new HashSet<>();
-
-		// This could probably be done a lot nicer and faster. Should probably be cached
-		// Add all cards continuing to draw from current position
-		for (int i = waste(); i < size(); i++) {
-			reachableCards.add(cards[i]);
-		}
-		// Add all cards reachable after going through the entire stock
-		for (int i = 2; i < size(); i += 3) {
-			reachableCards.add(cards[i]);
-		}
+		return Card.fromMask(reachableCardsMask());
+	}
 
+	@Override
+	@Contract(pure = true)
+	public long reachableCardsMask() {
+		updateReachableCards();
 		return reachableCards;
 	}
 
+	/**
+	 * Returns a card taken by {@link #take(int)} to the index it was taken from, and restores the waste from before.
+	 */
+	void putBack(int card, int index, int waste) {
+		addCard(card, index);
+		this.waste = waste;
+	}
+
 	private void addCard(int card, int index) {
-		// This could be done better; cards would have to not be an array
 		if (index > size())
 			throw new IllegalArgumentException("Error: Cannot add card at index " + index + " to stock, as this would result in one or more empty spaces.\nNote: Index most at most be equal to current size of stock");
-		if (index < size()) // Shuffle all the cards along
-			System.arraycopy(cards, index, cards, index + 1, size() - index);
-		cards[index] = card;
+		if (size() == cards.length)
+			throw new IllegalArgumentException("Error: Cannot add card to stock, as it already holds every card it was created with");
+		moveGapTo(index);
+		place(card, gapStart++);
 		size++;
+		containedCards |= Card.toMask(card);
+		reachableCardsOutdated = true;
 	}
 
 	private int removeCard(int card) {
-		int index = 0;
-		while (index < size() && card != cards[index]) index++;
-		if (index == size)
+		if ((containedCards & Card.toMask(card)) == 0)
 			throw new IllegalArgumentException("Error: Cannot remove " + card + " as it is not contained herein.");
-
-		size--;
-		if (size() - index >= 0) // Shuffle cards back (shuffle as in move, not randomise)
-			System.arraycopy(cards, index + 1, cards, index, size() - index);
-
+		int index = indexOf(card);
+		moveGapTo(index);
+		size--; // The card is now the first slot after the gap, so growing the gap removes it
+		containedCards &= ~Card.toMask(card);
+		reachableCardsOutdated = true;
 		return index;
 	}
 
+	/**
+	 * Moves the gap of {@link #cards} to start at the given index, by moving the cards between its old and new start
+	 * to the other side of it.
+	 */
+	private void moveGapTo(int index) {
+		int gapLength = gapLength();
+		if (gapLength == 0) {
+			gapStart = index;
+			return;
+		}
+		while (gapStart > index) {
+			gapStart--;
+			place(cards[gapStart], gapStart + gapLength);
+		}
+		while (gapStart < index) {
+			place(cards[gapStart + gapLength], gapStart);
+			gapStart++;
+		}
+	}
+
+	private void place(int card, int slot) {
+		cards[slot] = card;
+		slots[Card.toIndex(card)] = (byte) slot;
+	}
 
 	protected int take(int card) {
-		// This can be sped up using a lookup table
-		if (!reachableCards().contains(card)) {
+		if (!canTake(card)) {
 			throw new IllegalArgumentException("Error: cannot take " + card + " from Stock as it is not reachable.\nReachable cards: " + reachableCards());
 		}
 		waste = removeCard(card) - 1;
@@ -164,14 +301,16 @@ public class Stock implements CardContainer {
 		if (o == null || getClass() != o.getClass()) return false;
 		Stock stock = (Stock) o;
 		if (size != stock.size || waste != stock.waste) return false;
-		return Arrays.equals(cards, 0, size(), stock.cards, 0, size());
+		for (int i = 0; i < size(); i++)
+			if (cardAt(i) != stock.cardAt(i)) return false;
+		return true;
 	}
 
 	@Override
 	public int hashCode() {
 		int result = Objects.hash(size, waste);
 		for (int i = 0; i < size(); i++) {
-			result = 31 * result + cards[i]; // Arrays.hashCode(cards) but ignoring cards that are not in the stock
+			result = 31 * result + cardAt(i); // Arrays.hashCode(cards) but ignoring cards that are not in the stock
 		}
 		return result;
 	}
@@ -182,16 +321,16 @@ public class Stock implements CardContainer {
 			final String ANSI_RED = "\u001B[31m";
 			final String ANSI_GREEN = "\u001B[32m";
 			final String ANSI_RESET = "\u001B[0m";
-			if (cards[waste()] == card) return ANSI_RED + Card.asString(card) + ANSI_RESET;
-			if (reachableCards().contains(card)) return ANSI_GREEN + Card.asString(card) + ANSI_RESET;
+			if (waste() >= 0 && cardAt(waste()) == card) return ANSI_RED + Card.asString(card) + ANSI_RESET;
+			if ((reachableCardsMask() & Card.toMask(card)) != 0) return ANSI_GREEN + Card.asString(card) + ANSI_RESET;
 			return Card.asString(card);
 		};
 
 		StringBuilder sb = new StringBuilder("[");
 		if (!isEmpty())
-			sb.append(cardToColouredString.apply(cards[0]));
+			sb.append(cardToColouredString.apply(cardAt(0)));
 		for (int i = 1; i < size(); i++) {
-			sb.append(", ").append(cardToColouredString.apply(cards[i]));
+			sb.append(", ").append(cardToColouredString.apply(cardAt(i)));
 		}
 		return sb.append("]").toString();
 	}
@@ -0,0 +1,113 @@
+package model.klondike;
+
+import model.Card;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random numbers for Zobrist hashing of Klondike positions. A position's key is the XOR of one number per card and the
+ * place it lies, so moving a card only requires XOR-ing out its old place and XOR-ing in its new one.
+ * <p>
+ * The numbers are generated from a fixed seed, so keys are the same from run to run.
+ */
+final class Zobrist {
+	static final int MAX_NUM_COLUMNS = 7;
+	static final int MAX_NUM_FOUNDATIONS = 4;
+	private static final int MAX_NUM_CARDS_IN_STOCK = 52;
+	/**
+	 * Cards are 6-bit values; a rank in the low 4 bits and the suit in the 2 bits above.
+	 */
+	private static final int NUM_CARD_VALUES = 64;
+
+	private static final long[] columnKeys = new long[MAX_NUM_COLUMNS * Column.MAX_NUM_CARDS_IN_COLUMN * NUM_CARD_VALUES];
+	private static final long[] foundationKeys = new long[MAX_NUM_FOUNDATIONS * NUM_CARD_VALUES];
+	private static final long[] stockKeys = new long[NUM_CARD_VALUES];
+	/**
+	 * Keys of the canonical form of a position, in which neither the order of the columns nor of the foundations
+	 * matters.
+	 */
+	private static final long[] canonicalColumnKeys = new long[Column.MAX_NUM_CARDS_IN_COLUMN * NUM_CARD_VALUES];
+	private static final long[] canonicalFoundationKeys = new long[NUM_CARD_VALUES];
+	/**
+	 * Indexed by the card below + 1, as it is {@link #BOTTOM_OF_STOCK} for the bottom card, then by the card.
+	 */
+	private static final long[] canonicalStockKeys = new long[(NUM_CARD_VALUES + 1) * NUM_CARD_VALUES];
+	/**
+	 * Indexed by waste + 1, as the waste is -1 when no card has been drawn.
+	 */
+	private static final long[] wasteKeys = new long[MAX_NUM_CARDS_IN_STOCK + 1];
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x4B4C4F4E44494B45L);
+		for (long[] keys : new long[][]{columnKeys, foundationKeys, stockKeys, wasteKeys, canonicalColumnKeys, canonicalFoundationKeys,
+				canonicalStockKeys})
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = random.nextLong();
+	}
+
+	private Zobrist() {
+	}
+
+	/**
+	 * The stock is only ever taken from, never shuffled, so the order of its cards is given by the deal. Within one
+	 * game a stock is therefore identified by which cards it holds and where its waste is, not by their order.
+	 */
+	static long stock(int card) {
+		return stockKeys[card];
+	}
+
+	static long waste(int waste) {
+		return wasteKeys[waste + 1];
+	}
+
+	static long column(int column, int position, int card) {
+		return columnKeys[(column * Column.MAX_NUM_CARDS_IN_COLUMN + position) * NUM_CARD_VALUES + card];
+	}
+
+	static long foundation(int foundation, int card) {
+		return foundationKeys[foundation * NUM_CARD_VALUES + card];
+	}
+
+	/**
+	 * The number of ways to relabel suits that leave the rules unchanged: the two black suits may be swapped, and so
+	 * may the two red suits. Symmetry 0 leaves every suit as it is.
+	 */
+	static final int NUM_SUIT_SYMMETRIES = 4;
+
+	/**
+	 * Returns the card as relabeled by the given suit symmetry; bit 0 of the symmetry swaps the black suits and bit
+	 * 1 the red suits. Unknown cards have no suit and are left as they are.
+	 */
+	static int relabel(int card, int symmetry) {
+		if (Card.isUnknown(card)) return card;
+		int swappedColour = (card & Card.Colour) == 0 ? 1 : 2;
+		return (symmetry & swappedColour) == 0 ? card : card ^ Card.Type;
+	}
+
+	/**
+	 * The key of a card in a column of the canonical form, which depends on its position but not on the column.
+	 */
+	static long canonicalColumn(int position, int card) {
+		return canonicalColumnKeys[position * NUM_CARD_VALUES + card];
+	}
+
+	static long canonicalFoundation(int card) {
+		return canonicalFoundationKeys[card];
+	}
+
+	/**
+	 * Stands for the card below the bottom card of the stock in {@link #canonicalStock(int, int)}.
+	 */
+	static final int BOTTOM_OF_STOCK = -1;
+
+	/**
+	 * The key of a card lying directly on another in the stock of the canonical form. Unlike {@link #stock(int)},
+	 * the order of the stock counts, as a stock relabeled by a suit symmetry need not be in the order of the deal: two
+	 * stocks holding the same cards in a different order must not share a key.
+	 *
+	 * @param below the card directly below, or {@link #BOTTOM_OF_STOCK}
+	 */
+	static long canonicalStock(int below, int card) {
+		return canonicalStockKeys[(below + 1) * NUM_CARD_VALUES + card];
+	}
+}
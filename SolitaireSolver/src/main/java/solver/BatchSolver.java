@@ -0,0 +1,157 @@
+package solver;
+
+import model.Move;
+import model.klondike.Deal;
+import model.klondike.Klondike;
+import model.klondike.Stock;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Plays or solves many deals at once, for measuring how well a solver does over a large number of games.
+ * <p>
+ * Each deal is one task of a work-stealing pool, so threads that finish their deals early take over deals from the
+ * others. Each thread has its own solver, as solvers must not be shared between threads, and reuses it for every deal
+ * it takes, closing it once every deal is done. Results are handed on as each deal finishes, not in the order the deals
+ * were given.
+ */
+public class BatchSolver implements AutoCloseable {
+	/**
+	 * The result of one deal.
+	 *
+	 * @param index the index of the deal in the list given
+	 * @param won   whether the game was won or, when solving, a solution was found
+	 * @param moves the number of moves played, or the length of the solution found
+	 * @param nodes the number of positions searched, see {@link SolverStats#getNodes()}
+	 * @param time  the time spent on the deal
+	 */
+	public record Result(int index, boolean won, int moves, long nodes, @NotNull Duration time) {
+	}
+
+	private final ForkJoinPool pool;
+
+	public BatchSolver() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism the number of deals played or solved at a time
+	 */
+	public BatchSolver(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Error: parallelism must be >= 1, was " + parallelism);
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Plays each deal as at a table, asking a solver for every move and turning face-down cards over as they are
+	 * uncovered, until the game is won, no move is possible, or maxMoves moves have been made. Returns once every
+	 * deal has been played.
+	 *
+	 * @param solvers makes the solver of each thread
+	 * @param results is given the result of each deal as it finishes, from the thread that played it, so it must be
+	 *                safe to call from several threads at once
+	 */
+	public void play(@NotNull List<Deal> deals, @NotNull Supplier<? extends Solver<Klondike>> solvers, int maxSearchDepth,
+	                 @NotNull TemporalAmount timePerMove, int maxMoves, @NotNull Consumer<Result> results) {
+		if (deals == null)
+			throw new IllegalArgumentException("Error: deals must not be null");
+		if (solvers == null)
+			throw new IllegalArgumentException("Error: solvers must not be null");
+		if (maxMoves < 1)
+			throw new IllegalArgumentException("Error: maxMoves must be >= 1, was " + maxMoves);
+		Queue<Solver<Klondike>> made = new ConcurrentLinkedQueue<>();
+		ThreadLocal<Solver<Klondike>> solver = perThread(solvers, made);
+		run(deals.size(), made, index -> {
+			long startTime = System.nanoTime();
+			Deal deal = deals.get(index);
+			Klondike game = deal.newGame();
+			int[] possibleMoves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+			int numMoves = 0;
+			long numNodes = 0;
+			while (numMoves < maxMoves && !game.isSolved() && game.possibleMoves(possibleMoves) > 0) {
+				Move move = solver.get().getBestMove(game, maxSearchDepth, timePerMove);
+				numNodes += solver.get().getStats().getNodes();
+				game.makeMove(move);
+				deal.revealUncoveredCards(game);
+				numMoves++;
+			}
+			return new Result(index, game.isSolved(), numMoves, numNodes, Duration.ofNanos(System.nanoTime() - startTime));
+		}, results);
+	}
+
+	/**
+	 * Searches each deal for a solution, knowing every card, with a {@link BestFirstKlondikeSolver}. Returns once every
+	 * deal has been searched.
+	 *
+	 * @param solvers makes the solver of each thread
+	 * @param results is given the result of each deal as it finishes, from the thread that solved it, so it must be
+	 *                safe to call from several threads at once
+	 */
+	public void solve(@NotNull List<Deal> deals, @NotNull Supplier<BestFirstKlondikeSolver> solvers, int maxSearchDepth,
+	                  @NotNull TemporalAmount timePerDeal, @NotNull Consumer<Result> results) {
+		if (deals == null)
+			throw new IllegalArgumentException("Error: deals must not be null");
+		if (solvers == null)
+			throw new IllegalArgumentException("Error: solvers must not be null");
+		Queue<BestFirstKlondikeSolver> made = new ConcurrentLinkedQueue<>();
+		ThreadLocal<BestFirstKlondikeSolver> solver = perThread(solvers, made);
+		run(deals.size(), made, index -> {
+			long startTime = System.nanoTime();
+			Deal deal = deals.get(index);
+			Klondike game = Klondike.newGame(new Stock(deal.stock()));
+			Optional<List<Move>> solution = solver.get().solve(game, deal.hiddenCards(), maxSearchDepth, timePerDeal);
+			return new Result(index, solution.isPresent(), solution.map(List::size).orElse(0),
+					solver.get().getStats().getNodes(), Duration.ofNanos(System.nanoTime() - startTime));
+		}, results);
+	}
+
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Returns the solver of each thread, made on first use and added to made, for closing when done.
+	 */
+	private static <S extends Solver<Klondike>> @NotNull ThreadLocal<S> perThread(@NotNull Supplier<? extends S> solvers,
+	                                                                             @NotNull Queue<? super S> made) {
+		return ThreadLocal.withInitial(() -> {
+			S solver = solvers.get();
+			made.add(solver);
+			return solver;
+		});
+	}
+
+	/**
+	 * Runs the task of each deal in the pool, handing on each result as it is returned, then closes the solvers made.
+	 */
+	private void run(int numDeals, @NotNull Queue<? extends Solver<Klondike>> solvers, @NotNull IntFunction<Result> task,
+	                 @NotNull Consumer<Result> results) {
+		if (results == null)
+			throw new IllegalArgumentException("Error: results must not be null");
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(numDeals);
+			for (int i = 0; i < numDeals; i++) {
+				int index = i;
+				tasks.add(pool.submit(() -> results.accept(task.apply(index))));
+			}
+			for (ForkJoinTask<?> submitted : tasks)
+				submitted.join(); // Rethrows anything thrown by the task
+		} finally {
+			solvers.forEach(Solver::close);
+		}
+	}
+}
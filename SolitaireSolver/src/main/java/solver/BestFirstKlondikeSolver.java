@@ -0,0 +1,298 @@
+package solver;
+
+import model.Move;
+import model.klondike.Klondike;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Searches for a complete solution best-first: of all positions found but not yet searched, the one with the lowest
+ * number of moves made plus weight times the heuristic's estimate of the moves left is searched next. With weight 1
+ * this is A*; a higher weight trusts the heuristic more, finding solutions faster but not always the shortest.
+ * <p>
+ * Positions are not stored but reached by moves. Each position found remembers only the move leading to it from its
+ * parent, and the game is brought from one position to the next by undoing moves up to their common ancestor and
+ * making the moves down from it. Unlike unpacking a {@link model.klondike.KlondikeState}, which builds a new game for
+ * every position searched, this plays one game throughout, keeping its move history, and the keys and face-down cards
+ * turned over along the way.
+ */
+public class BestFirstKlondikeSolver implements Solver<Klondike> {
+	/**
+	 * Reading the clock is not free, so the deadline is only checked once every this many positions. Must be a power
+	 * of two.
+	 */
+	private static final int POSITIONS_BETWEEN_TIME_CHECKS = 1024;
+
+	private final KlondikeHeuristic heuristic;
+	private final int weight;
+	/**
+	 * The stats of the last search.
+	 */
+	private volatile SolverStats stats = SolverStats.NONE;
+
+	public BestFirstKlondikeSolver() {
+		this(KlondikeHeuristic.CARDS_LEFT, 1);
+	}
+
+	/**
+	 * @param weight how much the heuristic's estimate counts compared to the moves made. Must be >= 1.
+	 */
+	public BestFirstKlondikeSolver(@NotNull KlondikeHeuristic heuristic, int weight) {
+		if (heuristic == null)
+			throw new IllegalArgumentException("Error: heuristic must not be null");
+		if (weight < 1)
+			throw new IllegalArgumentException("Error: weight must be >= 1, was " + weight);
+		this.heuristic = heuristic;
+		this.weight = weight;
+	}
+
+	/**
+	 * Returns the moves solving the game, or empty if no solution of at most maxSearchDepth moves was found before
+	 * maxTime had passed. Face-down cards stay face down, so a game with any cannot be solved.
+	 */
+	public @NotNull Optional<List<Move>> solve(@NotNull Klondike game, int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+		validate(game, maxSearchDepth, maxTime);
+		Search search = new Search(game.deepCopy(), null);
+		return search.run(maxSearchDepth, maxTime) ? Optional.of(search.movesTo(search.best)) : Optional.empty();
+	}
+
+	/**
+	 * Like {@link #solve(Klondike, int, TemporalAmount)}, but face-down cards are turned over as they are uncovered,
+	 * as the given cards, so the whole deal is known.
+	 *
+	 * @param hiddenCards for each column, the cards of its face-down places, from the bottom up
+	 */
+	public @NotNull Optional<List<Move>> solve(@NotNull Klondike game, int @NotNull [][] hiddenCards, int maxSearchDepth,
+	                                           @NotNull TemporalAmount maxTime) {
+		validate(game, maxSearchDepth, maxTime);
+		if (hiddenCards == null)
+			throw new IllegalArgumentException("Error: hiddenCards must not be null");
+		Klondike copy = game.deepCopy();
+		Determinization determinization = new Determinization(copy, hiddenCards);
+		determinization.revealUncoveredCards(copy);
+		Search search = new Search(copy, determinization);
+		return search.run(maxSearchDepth, maxTime) ? Optional.of(search.movesTo(search.best)) : Optional.empty();
+	}
+
+	/**
+	 * Returns the first move of the solution if one is found in time, otherwise the first move towards the position
+	 * found with the lowest estimate of moves left.
+	 */
+	@Override
+	public Move getBestMove(@NotNull Klondike game, int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+		validate(game, maxSearchDepth, maxTime);
+		int[] possibleMoves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		if (game.possibleMoves(possibleMoves) < 1)
+			throw new IllegalArgumentException("Error: No possible moves");
+
+		Search search = new Search(game.deepCopy(), null);
+		search.run(maxSearchDepth, maxTime);
+		List<Move> moves = search.movesTo(search.best);
+		return moves.isEmpty() ? Move.decode(possibleMoves[0]) : moves.get(0);
+	}
+
+	/**
+	 * Returns the stats of the last call to getBestMove or solve. Its nodes are the positions searched, its probes the
+	 * lookups of each position found, and its cutoffs the positions found not worth searching, as they were reached in
+	 * as few moves before or can never be won.
+	 */
+	@Override
+	public @NotNull SolverStats getStats() {
+		return stats;
+	}
+
+	private static void validate(Klondike game, int maxSearchDepth, TemporalAmount maxTime) {
+		if (game == null)
+			throw new IllegalArgumentException("Error: game must not be null");
+		if (maxSearchDepth <= 0)
+			throw new IllegalArgumentException("Error: maxSearchDepth must be >= 1");
+		if (maxTime == null)
+			throw new IllegalArgumentException("Error: maxTime must not be null");
+	}
+
+	/**
+	 * A position found, reached from its parent by a move and any face-down cards it uncovered being turned over.
+	 */
+	private record Node(Node parent, int move, int numActions, int depth, long key, int estimate, int priority, long order)
+			implements Comparable<Node> {
+		@Override
+		public int compareTo(@NotNull Node other) {
+			if (priority != other.priority) return Integer.compare(priority, other.priority);
+			if (depth != other.depth) return Integer.compare(other.depth, depth); // Deeper is closer to a solution
+			return Long.compare(order, other.order); // First found first, so that the search is deterministic
+		}
+	}
+
+	private final class Search {
+		private final Klondike game;
+		/**
+		 * Deals the face-down cards turned over during the search; null if they are left face down.
+		 */
+		private final Determinization determinization;
+		private final PriorityQueue<Node> open = new PriorityQueue<>();
+		/**
+		 * The fewest moves each position has been reached in, by key.
+		 */
+		private final Map<Long, Integer> depths = new HashMap<>();
+		private final int[] moves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		private final Node root;
+		/**
+		 * The position the game is in.
+		 */
+		private Node current;
+		/**
+		 * The solution once found, and until then the position with the lowest estimate.
+		 */
+		private Node best;
+		private long numFound = 0;
+		private final SolverStats stats = new SolverStats();
+		/**
+		 * Counts what this search does, until added to {@link #stats} every {@link #POSITIONS_BETWEEN_TIME_CHECKS}
+		 * positions.
+		 */
+		private final SolverStats.Counters counters = new SolverStats.Counters();
+		private int maxDepth = 0;
+		private final long allocatedBefore = SolverStats.allocatedBytesOfCurrentThread();
+
+		private Search(@NotNull Klondike game, Determinization determinization) {
+			BestFirstKlondikeSolver.this.stats = stats;
+			this.game = game;
+			this.determinization = determinization;
+			int estimate = heuristic.estimate(game);
+			root = new Node(null, TranspositionTable.NO_MOVE, 0, 0, key(), estimate, weight * estimate, numFound++);
+			current = root;
+			best = root;
+		}
+
+		/**
+		 * Returns whether a solution was found, in which case it is the path to {@link #best}.
+		 */
+		private boolean run(int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+			try {
+				return search(maxSearchDepth, maxTime);
+			} finally {
+				addCountersToStats();
+				stats.addAllocatedBytes(SolverStats.allocatedBytesOfCurrentThread() - allocatedBefore);
+				stats.finish();
+			}
+		}
+
+		private boolean search(int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+			long startTime = System.nanoTime();
+			long timeBudget = KlondikeSolver.timeBudgetInNanos(maxTime);
+			open.add(root);
+			depths.put(root.key, 0);
+			long numSearched = 0;
+			while (!open.isEmpty()) {
+				if ((++numSearched & (POSITIONS_BETWEEN_TIME_CHECKS - 1)) == 0) {
+					addCountersToStats();
+					if (System.nanoTime() - startTime >= timeBudget) return false;
+				}
+				Node node = open.poll();
+				if (depths.get(node.key) < node.depth) continue; // Since reached in fewer moves
+				moveTo(node);
+				counters.nodes++;
+				maxDepth = Math.max(maxDepth, node.depth);
+				if (game.isSolved()) {
+					best = node;
+					return true;
+				}
+				if (node.depth < maxSearchDepth) expand(node);
+			}
+			return false;
+		}
+
+		private void addCountersToStats() {
+			counters.addTo(stats);
+			stats.reachedDepth(maxDepth);
+		}
+
+		private void expand(@NotNull Node node) {
+			int numMoves = counters.possibleMoves(game, moves);
+			int depth = node.depth + 1;
+			for (int i = 0; i < numMoves; i++) {
+				int numActions = play(moves[i]);
+				long key = key();
+				counters.transpositionTableProbes++;
+				Integer knownDepth = depths.get(key);
+				if (knownDepth != null) counters.transpositionTableHits++;
+				if ((knownDepth == null || depth < knownDepth) && !isDeadEnd()) {
+					depths.put(key, depth);
+					int estimate = heuristic.estimate(game);
+					Node child = new Node(node, moves[i], numActions, depth, key, estimate, depth + weight * estimate, numFound++);
+					open.add(child);
+					if (estimate < best.estimate) best = child;
+				} else {
+					counters.cutoffs++;
+				}
+				for (int j = 0; j < numActions; j++)
+					game.undoMove();
+			}
+		}
+
+		/**
+		 * Returns the key positions are merged by. Positions that differ only by the order of their columns or by
+		 * swapped suits are merged, unless the deal is known, in which case they may have different cards face down.
+		 */
+		private long key() {
+			return determinization == null ? game.getCanonicalKey() : game.getZobristKey();
+		}
+
+		/**
+		 * Returns whether the position can be proven never to be won, in which case it is not worth searching. Only
+		 * the known face-down cards of a known deal can prove this.
+		 */
+		private boolean isDeadEnd() {
+			return determinization != null && determinization.isDeadEnd(game);
+		}
+
+		/**
+		 * Makes the move, then turns over any face-down card it uncovered, and returns the number of actions taken.
+		 */
+		private int play(int move) {
+			game.makeMove(Move.decode(move));
+			return determinization == null ? 1 : 1 + determinization.revealUncoveredCards(game);
+		}
+
+		/**
+		 * Brings the game from the current position to the given one.
+		 */
+		private void moveTo(@NotNull Node target) {
+			List<Node> path = new ArrayList<>();
+			for (Node node = target; node != current; ) {
+				if (node.depth >= current.depth) {
+					path.add(node);
+					node = node.parent;
+				} else {
+					undo(current);
+					current = current.parent;
+				}
+			}
+			for (int i = path.size() - 1; i >= 0; i--) {
+				play(path.get(i).move);
+				current = path.get(i);
+			}
+		}
+
+		private void undo(@NotNull Node node) {
+			for (int i = 0; i < node.numActions; i++)
+				game.undoMove();
+		}
+
+		private @NotNull List<Move> movesTo(@NotNull Node target) {
+			List<Move> moves = new ArrayList<>(target.depth);
+			for (Node node = target; node != root; node = node.parent)
+				moves.add(Move.decode(node.move));
+			Collections.reverse(moves);
+			return moves;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package solver;
+
+import model.Card;
+import model.klondike.Klondike;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+/**
+ * One possible world of a game with face-down cards: the cards not face up anywhere are dealt at random to the
+ * face-down places, and as a face-down card is uncovered, it is turned over as the card dealt to its place.
+ * <p>
+ * A determinization is made for one game, and only the face-down places that game had when it was made are dealt
+ * to.
+ */
+final class Determinization {
+	/**
+	 * For each column, the card dealt to each face-down place.
+	 */
+	private final int[][] hiddenCards;
+	private final int[] unseenCards = new int[Card.NumberOfCards];
+
+	Determinization(@NotNull Klondike game) {
+		hiddenCards = new int[game.getNumberOfColumns()][];
+		for (int column = 0; column < hiddenCards.length; column++)
+			hiddenCards[column] = new int[game.getNumberOfUnknownCards(column)];
+	}
+
+	/**
+	 * A determinization with a known deal, which {@link #deal} must not be called on.
+	 *
+	 * @param hiddenCards for each column of the game, the cards of its face-down places, from the bottom up
+	 */
+	Determinization(@NotNull Klondike game, int @NotNull [][] hiddenCards) {
+		if (hiddenCards.length != game.getNumberOfColumns())
+			throw new IllegalArgumentException("Error: Expected hidden cards for " + game.getNumberOfColumns() + " columns, was " + hiddenCards.length);
+		this.hiddenCards = new int[hiddenCards.length][];
+		for (int column = 0; column < hiddenCards.length; column++) {
+			if (hiddenCards[column].length != game.getNumberOfUnknownCards(column))
+				throw new IllegalArgumentException("Error: Expected " + game.getNumberOfUnknownCards(column)
+						+ " hidden cards in column " + column + ", was " + hiddenCards[column].length);
+			this.hiddenCards[column] = hiddenCards[column].clone();
+		}
+	}
+
+	/**
+	 * Deals the cards not face up anywhere in the game at random to the face-down places, replacing any earlier deal.
+	 */
+	void deal(@NotNull Klondike game, @NotNull SplittableRandom random) {
+		int numUnseen = 0;
+		for (long unseen = game.getUnseenCardsMask(); unseen != 0; unseen &= unseen - 1)
+			unseenCards[numUnseen++] = Card.fromIndex(Long.numberOfTrailingZeros(unseen));
+		for (int i = numUnseen - 1; i > 0; i--) { // Fisher-Yates shuffle
+			int j = random.nextInt(i + 1);
+			int card = unseenCards[i];
+			unseenCards[i] = unseenCards[j];
+			unseenCards[j] = card;
+		}
+		int next = 0;
+		for (int[] column : hiddenCards)
+			for (int position = 0; position < column.length; position++)
+				column[position] = next < numUnseen ? unseenCards[next++] : Card.Unknown;
+	}
+
+	/**
+	 * Returns whether the game, with the cards dealt to its face-down places, can be proven never to be won; see
+	 * {@link Klondike#isDeadEnd(int[][])}.
+	 */
+	boolean isDeadEnd(@NotNull Klondike game) {
+		return game.isDeadEnd(hiddenCards);
+	}
+
+	/**
+	 * Turns over every face-down card on top of a column, as the card dealt to its place, and returns the number of
+	 * cards turned over; see {@link Klondike#revealUncoveredCards(int[][])}.
+	 */
+	int revealUncoveredCards(@NotNull Klondike game) {
+		return game.revealUncoveredCards(hiddenCards);
+	}
+}
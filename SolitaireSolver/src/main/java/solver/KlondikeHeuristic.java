@@ -0,0 +1,26 @@
+package solver;
+
+import model.Card;
+import model.klondike.Klondike;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Estimates the number of moves left to solve a game, for {@link BestFirstKlondikeSolver}.
+ */
+@FunctionalInterface
+public interface KlondikeHeuristic {
+	/**
+	 * The cards not yet in the foundations, each of which takes at least one move to get there, plus the face-down
+	 * cards, each of which has to be uncovered. As one move may both uncover a card and put a card in a foundation,
+	 * this may overestimate, so solutions found with it are not always the shortest.
+	 */
+	KlondikeHeuristic CARDS_LEFT = game ->
+			Card.NumberOfCards - game.getNumberOfCardsInFoundations() + game.getNumberOfUnknownCards();
+
+	/**
+	 * Returns a non-negative estimate of the number of moves left to solve the game, which must not change the game.
+	 */
+	@Contract(pure = true)
+	int estimate(@NotNull Klondike game);
+}
@@ -0,0 +1,497 @@
+package solver;
+
+import model.Move;
+import model.klondike.Klondike;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class KlondikeSolver implements Solver<Klondike> {
+	static final int SOLVED_SCORE = 1_000_000;
+	/**
+	 * Subtracted from the evaluation of a position proven never to be won, so that it scores below any position that
+	 * may still be, but dead ends still compare among themselves by how far they got.
+	 */
+	private static final int DEAD_END_PENALTY = SOLVED_SCORE;
+	private static final int FOUNDATION_CARD_SCORE = 100;
+	private static final int REVEALABLE_CARD_SCORE = 50;
+	private static final int EMPTY_COLUMN_SCORE = 10;
+	private static final int STOCK_CARD_SCORE = -1;
+
+	/**
+	 * Reading the clock is not free, so the deadline is only checked once every this many nodes. Must be a power of two.
+	 */
+	static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+
+	static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 1 << 18;
+
+	/**
+	 * Once a history score exceeds this, all are halved, so that they do not overflow and recent searches count more.
+	 */
+	private static final int MAX_HISTORY_SCORE = 1 << 24;
+	private static final int KILLERS_PER_PLY = 2;
+
+	/**
+	 * Remembers positions across calls to getBestMove, as consecutive positions of a game share most of their
+	 * subtrees. This also means that a solver must not be used by more than one thread at a time. Shared by all
+	 * search threads, so that each benefits from what the others have searched.
+	 */
+	private final TranspositionTable transpositionTable;
+	private final int parallelism;
+	/**
+	 * Runs the searches of the root moves when searching with more than one thread; null otherwise.
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * Whether the pool was made by this solver, and so is shut down by {@link #close()}.
+	 */
+	private final boolean ownsPool;
+	/**
+	 * The stats of the last call to getBestMove.
+	 */
+	private volatile SolverStats stats = SolverStats.NONE;
+
+	public KlondikeSolver() {
+		this(DEFAULT_TRANSPOSITION_TABLE_SIZE);
+	}
+
+	/**
+	 * @param transpositionTableSize the number of positions the solver can remember. Must be a power of two.
+	 */
+	public KlondikeSolver(int transpositionTableSize) {
+		this(transpositionTableSize, 1);
+	}
+
+	/**
+	 * @param transpositionTableSize the number of positions the solver can remember. Must be a power of two.
+	 * @param parallelism            the number of threads to search with, e.g.
+	 *                               {@code Runtime.getRuntime().availableProcessors()}
+	 */
+	public KlondikeSolver(int transpositionTableSize, int parallelism) {
+		this(transpositionTableSize, parallelism, null);
+	}
+
+	/**
+	 * @param sharedPool the pool to search with when searching with more than one thread, which is shut down by
+	 *                   whoever made it, not by {@link #close()}; or null to make one
+	 */
+	KlondikeSolver(int transpositionTableSize, int parallelism, ForkJoinPool sharedPool) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Error: parallelism must be >= 1, was " + parallelism);
+		transpositionTable = new TranspositionTable(transpositionTableSize);
+		this.parallelism = parallelism;
+		ownsPool = sharedPool == null;
+		pool = parallelism == 1 ? null : ownsPool ? new ForkJoinPool(parallelism) : sharedPool;
+	}
+
+	/**
+	 * Searches the game using iterative deepening; first every line of one move is searched, then every line of two
+	 * moves, and so on until either maxSearchDepth is reached or maxTime has passed. The returned move is the best
+	 * move found by the deepest search that finished in time.
+	 * <p>
+	 * With more than one thread, each iteration splits the moves of the given position between the threads, each
+	 * searching its own copy of the game but sharing one transposition table.
+	 * <p>
+	 * Moves to the foundations that can never be a mistake, see {@link Klondike#safeMoveToFoundation()}, are not
+	 * searched: if the given position has one, it is returned at once, and during the search they are made along with
+	 * the move before them as one step.
+	 * <p>
+	 * The game is left in the state it was given in.
+	 */
+	@Override
+	public Move getBestMove(@NotNull Klondike game, int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+		return getBestMove(game, null, maxSearchDepth, maxTime);
+	}
+
+	/**
+	 * Like {@link #getBestMove(Klondike, int, TemporalAmount)}, but if a determinization of the game is given, the
+	 * search turns face-down cards over as they are uncovered, as the cards dealt to their places. The search then
+	 * knows the whole deal, as if playing with every card face up.
+	 * <p>
+	 * The transposition table remembers scores of the deal searched, so a solver given determinizations should search
+	 * only one deal.
+	 */
+	Move getBestMove(@NotNull Klondike game, Determinization determinization, int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+		if (game == null)
+			throw new IllegalArgumentException("Error: game must not be null");
+		if (maxSearchDepth <= 0)
+			throw new IllegalArgumentException("Error: maxSearchDepth must be >= 1");
+		if (maxTime == null)
+			throw new IllegalArgumentException("Error: maxTime must not be null");
+		int[] possibleMoves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		int numPossibleMoves = game.possibleMoves(possibleMoves);
+		if (numPossibleMoves < 1)
+			throw new IllegalArgumentException("Error: No possible moves");
+		SolverStats stats = new SolverStats();
+		this.stats = stats;
+		long allocatedBefore = SolverStats.allocatedBytesOfCurrentThread();
+		try {
+			int safeMove = game.safeMoveToFoundation();
+			if (safeMove != Klondike.NO_SAFE_MOVE) return Move.decode(safeMove); // As good as any, so there is nothing to search
+
+			long startTime = System.nanoTime();
+			long timeBudget = timeBudgetInNanos(maxTime);
+			Search[] searches = new Search[parallelism];
+			for (int i = 0; i < searches.length; i++)
+				searches[i] = new Search(i == 0 ? game : game.deepCopy(), determinization, transpositionTable, stats, startTime, timeBudget);
+
+			int bestMove = possibleMoves[0];
+			for (int depth = 1; depth <= maxSearchDepth; depth++) {
+				RootResult result = searches.length == 1
+						? searchRoot(searches[0], possibleMoves, numPossibleMoves, depth)
+						: searchRootInParallel(searches, possibleMoves, numPossibleMoves, depth);
+				if (result == null) break; // Out of time
+				stats.reachedDepth(depth);
+				bestMove = result.bestMove;
+				moveToFront(possibleMoves, bestMove); // The best move of the last iteration is likely the best of the next
+				if (result.bestScore >= SOLVED_SCORE || !result.reachedHorizon) break; // Searching deeper will not change anything
+			}
+			return Move.decode(bestMove);
+		} finally {
+			stats.addAllocatedBytes(SolverStats.allocatedBytesOfCurrentThread() - allocatedBefore);
+			stats.finish();
+		}
+	}
+
+	/**
+	 * Returns the stats of the last call to getBestMove. Its node count includes the positions looked up in the
+	 * transposition table instead of being searched, and leaves, and its cutoffs count both the positions whose stored
+	 * result was deep enough and those where a move was found to solve the game.
+	 */
+	@Override
+	public @NotNull SolverStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Forgets every position searched, for searching a position that has nothing in common with those before, e.g.
+	 * another deal of the face-down cards.
+	 */
+	void clearTranspositionTable() {
+		transpositionTable.clear();
+	}
+
+	@Override
+	public void close() {
+		if (ownsPool && pool != null) pool.shutdown();
+	}
+
+	/**
+	 * @param reachedHorizon whether any line was cut short by the depth limit. If not, the whole game tree has been
+	 *                       searched.
+	 */
+	private record RootResult(int bestMove, int bestScore, boolean reachedHorizon) {
+	}
+
+	/**
+	 * Returns the result of searching every move to the given depth, or null if the search ran out of time.
+	 */
+	private static RootResult searchRoot(@NotNull Search search, int @NotNull [] moves, int numMoves, int depth) {
+		try {
+			search.searchRoot(moves, numMoves, depth);
+		} catch (SearchTimeoutException e) {
+			search.counters.addTo(search.stats); // What the unfinished move searched
+			return null;
+		}
+		return new RootResult(search.bestMove, search.bestScore, search.reachedHorizon);
+	}
+
+	/**
+	 * Like {@link #searchRoot}, but the moves are handed out one at a time to the searches, which run in parallel.
+	 */
+	private RootResult searchRootInParallel(Search @NotNull [] searches, int @NotNull [] moves, int numMoves, int depth) {
+		RootSplit split = new RootSplit(moves, numMoves, depth);
+		List<Callable<Void>> workers = new ArrayList<>(searches.length);
+		Thread caller = Thread.currentThread();
+		for (Search search : searches)
+			workers.add(() -> {
+				long allocatedBefore = SolverStats.allocatedBytesOfCurrentThread();
+				split.searchWith(search);
+				if (Thread.currentThread() != caller) // Whatever the caller allocates is measured by getBestMove
+					search.stats.addAllocatedBytes(SolverStats.allocatedBytesOfCurrentThread() - allocatedBefore);
+				return null;
+			});
+		pool.invokeAll(workers);
+
+		int bestMove = TranspositionTable.NO_MOVE;
+		int bestScore = Integer.MIN_VALUE;
+		for (int i = 0; i < numMoves; i++) { // In move order, so that ties are broken as by a single search
+			if (split.scores[i] <= bestScore) continue;
+			bestMove = moves[i];
+			bestScore = split.scores[i];
+		}
+		if (split.timedOut && bestScore < SOLVED_SCORE) return null; // Unless a win was found, a partial result is no use
+		boolean reachedHorizon = false;
+		for (Search search : searches)
+			reachedHorizon |= search.reachedHorizon;
+		return new RootResult(bestMove, bestScore, reachedHorizon);
+	}
+
+	/**
+	 * The moves of one iteration of a parallel search, and their scores. Each search takes the next move not yet
+	 * taken, so that threads finishing early are not left idle.
+	 */
+	private static final class RootSplit {
+		private final int[] moves;
+		private final int numMoves;
+		private final int depth;
+		private final int[] scores;
+		private final AtomicInteger nextMove = new AtomicInteger();
+		private volatile boolean solved = false;
+		private volatile boolean timedOut = false;
+
+		private RootSplit(int @NotNull [] moves, int numMoves, int depth) {
+			this.moves = moves;
+			this.numMoves = numMoves;
+			this.depth = depth;
+			this.scores = new int[numMoves];
+			Arrays.fill(scores, Integer.MIN_VALUE);
+		}
+
+		private void searchWith(@NotNull Search search) {
+			search.reachedHorizon = false;
+			try {
+				for (int i = nextMove.getAndIncrement(); i < numMoves && !solved; i = nextMove.getAndIncrement()) {
+					scores[i] = search.scoreOf(moves[i], depth - 1, 1);
+					search.counters.addTo(search.stats);
+					if (scores[i] >= SOLVED_SCORE) solved = true;
+				}
+			} catch (SearchTimeoutException e) {
+				timedOut = true;
+				search.counters.addTo(search.stats); // What the unfinished move searched
+			}
+		}
+	}
+
+	static long timeBudgetInNanos(@NotNull TemporalAmount maxTime) {
+		try {
+			return Duration.from(maxTime).toNanos();
+		} catch (ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	private static void moveToFront(int @NotNull [] moves, int move) {
+		int index = 0;
+		while (moves[index] != move) index++;
+		System.arraycopy(moves, 0, moves, 1, index);
+		moves[0] = move;
+	}
+
+	static int evaluate(@NotNull Klondike game) {
+		if (game.isSolved()) return SOLVED_SCORE;
+		return FOUNDATION_CARD_SCORE * game.getNumberOfCardsInFoundations()
+				+ REVEALABLE_CARD_SCORE * game.getNumberOfRevealableCards()
+				+ EMPTY_COLUMN_SCORE * game.getNumberOfEmptyColumns()
+				+ STOCK_CARD_SCORE * game.getNumberOfCardsInStock();
+	}
+
+	private static final class Search {
+		private final Klondike game;
+		/**
+		 * Deals the face-down cards turned over during the search; null if they are left face down.
+		 */
+		private final Determinization determinization;
+		private final TranspositionTable transpositionTable;
+		private final SolverStats stats;
+		/**
+		 * Counts what this search does, until added to {@link #stats} after each move of the root searched.
+		 */
+		private final SolverStats.Counters counters = new SolverStats.Counters();
+		/**
+		 * Counts the positions searched for the time check. Unlike the counters, it is never reset, so the clock is
+		 * read once every {@link #NODES_BETWEEN_TIME_CHECKS} positions however small the searches of the root moves are.
+		 */
+		private long nodesSearched = 0;
+		private final long startTime;
+		private final long timeBudget;
+		/**
+		 * One move buffer per ply, so that generating moves does not allocate.
+		 */
+		private int[][] moveBuffers = new int[0][];
+		/**
+		 * For each encoded move, how much it has been the best move, weighted by the depth searched below it. Moves that
+		 * were best in one position are often best in others, as most moves leave most of the game as it was.
+		 */
+		private final int[] history = new int[Move.NUMBER_OF_ENCODED_MOVES];
+		/**
+		 * For each ply, the last {@link #KILLERS_PER_PLY} distinct moves that were best at that ply, most recent first.
+		 */
+		private int[] killers = new int[0];
+		private final int[] orderingScores = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+
+		private int bestMove;
+		private int bestScore;
+		/**
+		 * Whether any line was cut short by the depth limit during the last iteration.
+		 */
+		private boolean reachedHorizon;
+
+		private Search(@NotNull Klondike game, Determinization determinization,
+		               @NotNull TranspositionTable transpositionTable, @NotNull SolverStats stats, long startTime,
+		               long timeBudget) {
+			this.game = game;
+			this.determinization = determinization;
+			this.transpositionTable = transpositionTable;
+			this.stats = stats;
+			this.startTime = startTime;
+			this.timeBudget = timeBudget;
+		}
+
+		private void searchRoot(int @NotNull [] moves, int numMoves, int depth) throws SearchTimeoutException {
+			reachedHorizon = false;
+			int bestMove = TranspositionTable.NO_MOVE;
+			int bestScore = Integer.MIN_VALUE;
+			for (int i = 0; i < numMoves; i++) {
+				int score = scoreOf(moves[i], depth - 1, 1);
+				counters.addTo(stats);
+				if (score <= bestScore) continue;
+				bestMove = moves[i];
+				bestScore = score;
+				if (bestScore >= SOLVED_SCORE) break;
+			}
+			this.bestMove = bestMove;
+			this.bestScore = bestScore;
+			transpositionTable.store(key(), depth, bestScore, bestMove);
+		}
+
+		private int scoreOf(int move, int depth, int ply) throws SearchTimeoutException {
+			int numActions = play(move);
+			for (int safeMove = game.safeMoveToFoundation(); safeMove != Klondike.NO_SAFE_MOVE; safeMove = game.safeMoveToFoundation())
+				numActions += play(safeMove);
+			try {
+				return search(depth, ply);
+			} finally {
+				for (int i = 0; i < numActions; i++)
+					game.undoMove();
+			}
+		}
+
+		/**
+		 * Returns the key positions are stored under. Positions that differ only by the order of their columns or by
+		 * swapped suits are stored as one, unless the deal is known, in which case they may have different cards face
+		 * down.
+		 */
+		private long key() {
+			return determinization == null ? game.getCanonicalKey() : game.getZobristKey();
+		}
+
+		/**
+		 * Makes the move, then turns over any face-down card it uncovered if the deal is known, and returns the number
+		 * of actions taken.
+		 */
+		private int play(int move) {
+			game.makeMove(Move.decode(move));
+			return determinization == null ? 1 : 1 + determinization.revealUncoveredCards(game);
+		}
+
+		private int search(int depth, int ply) throws SearchTimeoutException {
+			counters.nodes++;
+			if ((++nodesSearched & (NODES_BETWEEN_TIME_CHECKS - 1)) == 0 && System.nanoTime() - startTime >= timeBudget)
+				throw SearchTimeoutException.INSTANCE;
+			if (game.isSolved()) return SOLVED_SCORE;
+			if (determinization != null && determinization.isDeadEnd(game))
+				return evaluate(game) - DEAD_END_PENALTY; // No need to search what cannot be won
+			if (depth == 0) {
+				reachedHorizon = true;
+				return evaluate(game);
+			}
+
+			long key = key();
+			int hashMove = TranspositionTable.NO_MOVE;
+			counters.transpositionTableProbes++;
+			long entry = transpositionTable.probe(key);
+			if (entry != TranspositionTable.NOT_FOUND) {
+				counters.transpositionTableHits++;
+				if (TranspositionTable.depthOf(entry) >= depth) {
+					counters.cutoffs++;
+					reachedHorizon = true; // The stored search may well have been cut short by its depth limit
+					return TranspositionTable.scoreOf(entry);
+				}
+				hashMove = TranspositionTable.bestMoveOf(entry); // Best move of a shallower search is a good first guess
+			}
+
+			int[] moves = moveBuffer(ply);
+			int numMoves = counters.possibleMoves(game, moves);
+			if (numMoves == 0) return evaluate(game);
+			orderMoves(moves, numMoves, hashMove, ply); // A hash move of a different position with the same key is just ignored
+
+			int bestMove = TranspositionTable.NO_MOVE;
+			int bestScore = Integer.MIN_VALUE;
+			for (int i = 0; i < numMoves && bestScore < SOLVED_SCORE; i++) {
+				int score = scoreOf(moves[i], depth - 1, ply + 1);
+				if (score <= bestScore) continue;
+				bestMove = moves[i];
+				bestScore = score;
+			}
+			if (bestScore >= SOLVED_SCORE && bestMove != moves[numMoves - 1]) counters.cutoffs++; // Solved before the last move
+			rememberBestMove(bestMove, depth, ply);
+			transpositionTable.store(key, depth, bestScore, bestMove);
+			return bestScore;
+		}
+
+		/**
+		 * Sorts the moves so that those most likely to be best are searched first: the best move stored for the
+		 * position, then the killer moves of the ply, then the rest by history score. The sooner the best move is
+		 * searched, the sooner a solution cuts the search short, and the better the moves stored for the next
+		 * iteration.
+		 */
+		private void orderMoves(int @NotNull [] moves, int numMoves, int hashMove, int ply) {
+			for (int i = 0; i < numMoves; i++) {
+				int move = moves[i];
+				int score = history[move];
+				if (move == hashMove) score = Integer.MAX_VALUE;
+				else if (move == killers[ply * KILLERS_PER_PLY]) score = Integer.MAX_VALUE - 1;
+				else if (move == killers[ply * KILLERS_PER_PLY + 1]) score = Integer.MAX_VALUE - 2;
+				// Insertion sort, as there are few moves and they are often nearly sorted already
+				int j = i;
+				for (; j > 0 && orderingScores[j - 1] < score; j--) {
+					moves[j] = moves[j - 1];
+					orderingScores[j] = orderingScores[j - 1];
+				}
+				moves[j] = move;
+				orderingScores[j] = score;
+			}
+		}
+
+		private void rememberBestMove(int move, int depth, int ply) {
+			history[move] += depth * depth; // Deeper searches are more telling
+			if (history[move] > MAX_HISTORY_SCORE)
+				for (int i = 0; i < history.length; i++)
+					history[i] /= 2;
+			int killer = ply * KILLERS_PER_PLY;
+			if (killers[killer] == move) return;
+			killers[killer + 1] = killers[killer];
+			killers[killer] = move;
+		}
+
+		private int @NotNull [] moveBuffer(int ply) {
+			if (ply >= moveBuffers.length)
+				moveBuffers = Arrays.copyOf(moveBuffers, Math.max(2 * moveBuffers.length, ply + 1));
+			if (moveBuffers[ply] == null)
+				moveBuffers[ply] = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+			if (killers.length < moveBuffers.length * KILLERS_PER_PLY) {
+				int oldLength = killers.length;
+				killers = Arrays.copyOf(killers, moveBuffers.length * KILLERS_PER_PLY);
+				Arrays.fill(killers, oldLength, killers.length, TranspositionTable.NO_MOVE);
+			}
+			return moveBuffers[ply];
+		}
+	}
+
+	private static final class SearchTimeoutException extends RuntimeException {
+		private static final SearchTimeoutException INSTANCE = new SearchTimeoutException();
+
+		private SearchTimeoutException() {
+			super("Error: Search ran out of time", null, false, false);
+		}
+	}
+}
@@ -0,0 +1,240 @@
+package solver;
+
+import model.Card;
+import model.Move;
+import model.klondike.Klondike;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.temporal.TemporalAmount;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses moves by Monte Carlo tree search, which, unlike {@link KlondikeSolver}, takes into account that the
+ * face-down cards are unknown.
+ * <p>
+ * Each iteration first deals the unseen cards at random to the face-down places; a determinization. It then walks
+ * down the tree choosing among the moves legal in that deal by UCT, adds one new move to the tree, and plays on with
+ * random moves. Face-down cards are turned over as they are uncovered. The tree is shared by all deals, so its
+ * statistics average over what the face-down cards might be, which is known as information set MCTS.
+ */
+public class MCTSKlondikeSolver implements Solver<Klondike> {
+	private static final double EXPLORATION = Math.sqrt(2);
+	/**
+	 * Random play easily goes round in circles, e.g. moving a king back and forth between empty columns, so no
+	 * iteration plays more moves than this, whatever the max search depth.
+	 */
+	private static final int MAX_MOVES_PER_ITERATION = 256;
+
+	private final SplittableRandom random;
+
+	public MCTSKlondikeSolver() {
+		this(new SplittableRandom());
+	}
+
+	/**
+	 * @param seed seeds the random deals and playouts, so that searches of the same number of iterations choose the
+	 *             same move
+	 */
+	public MCTSKlondikeSolver(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	private MCTSKlondikeSolver(@NotNull SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * Searches until maxTime has passed, and returns the move of the given position that was tried the most.
+	 *
+	 * @param maxSearchDepth the number of moves each iteration plays from the given position, tree and random moves
+	 *                       together
+	 */
+	@Override
+	public Move getBestMove(@NotNull Klondike game, int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+		if (game == null)
+			throw new IllegalArgumentException("Error: game must not be null");
+		if (maxSearchDepth <= 0)
+			throw new IllegalArgumentException("Error: maxSearchDepth must be >= 1");
+		if (maxTime == null)
+			throw new IllegalArgumentException("Error: maxTime must not be null");
+		int[] possibleMoves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		int numPossibleMoves = game.possibleMoves(possibleMoves);
+		if (numPossibleMoves < 1)
+			throw new IllegalArgumentException("Error: No possible moves");
+
+		long startTime = System.nanoTime();
+		long timeBudget = KlondikeSolver.timeBudgetInNanos(maxTime);
+		Search search = new Search(game.deepCopy(), Math.min(maxSearchDepth, MAX_MOVES_PER_ITERATION), random);
+		while (System.nanoTime() - startTime < timeBudget)
+			search.iterate();
+
+		Node bestChild = search.root.mostVisitedChild();
+		return Move.decode(bestChild == null ? possibleMoves[0] : bestChild.move);
+	}
+
+	/**
+	 * The reward of a finished iteration, in range [0; 1]: half for the share of cards in the foundations and half
+	 * for the share of cards face up, so that a won game is worth 1.
+	 */
+	static double reward(@NotNull Klondike game) {
+		return (game.getNumberOfCardsInFoundations() + Card.NumberOfCards - game.getNumberOfUnknownCards())
+				/ (2.0 * Card.NumberOfCards);
+	}
+
+	private static final class Node {
+		private static final Node[] NO_CHILDREN = new Node[0];
+
+		private final int move;
+		private Node[] children = NO_CHILDREN;
+		private int numChildren = 0;
+		private int visits = 0;
+		/**
+		 * The number of times this node's move was legal when its parent was visited. Moves that are only legal in
+		 * some deals are visited less, and their UCT exploration term is based on this instead of the parent's visits.
+		 */
+		private int availability = 0;
+		private double totalReward = 0;
+
+		private Node(int move) {
+			this.move = move;
+		}
+
+		private Node child(int move) {
+			for (int i = 0; i < numChildren; i++)
+				if (children[i].move == move) return children[i];
+			return null;
+		}
+
+		private @NotNull Node addChild(int move) {
+			if (numChildren == children.length)
+				children = Arrays.copyOf(children, Math.max(4, 2 * numChildren));
+			Node child = new Node(move);
+			children[numChildren++] = child;
+			return child;
+		}
+
+		private double uct() {
+			return totalReward / visits + EXPLORATION * Math.sqrt(Math.log(availability) / visits);
+		}
+
+		private Node mostVisitedChild() {
+			Node best = null;
+			for (int i = 0; i < numChildren; i++)
+				if (best == null || children[i].visits > best.visits) best = children[i];
+			return best;
+		}
+	}
+
+	/**
+	 * One search from one position. The game is a copy of the position searched, on which every iteration makes its
+	 * moves and then undoes them again.
+	 */
+	private static final class Search {
+		private final Klondike game;
+		private final int maxMoves;
+		private final SplittableRandom random;
+		private final Node root = new Node(TranspositionTable.NO_MOVE);
+		private final Determinization determinization;
+		/**
+		 * One move buffer per ply, so that generating moves does not allocate.
+		 */
+		private final int[][] moveBuffers;
+		private final int[] untriedMoves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		private final Node[] path;
+
+		private Search(@NotNull Klondike game, int maxMoves, @NotNull SplittableRandom random) {
+			this.game = game;
+			this.maxMoves = maxMoves;
+			this.random = random;
+			determinization = new Determinization(game);
+			moveBuffers = new int[maxMoves][Klondike.MAX_NUM_POSSIBLE_MOVES];
+			path = new Node[maxMoves + 1];
+		}
+
+		private void iterate() {
+			determinization.deal(game, random);
+			int numActions = 0; // Moves and reveals, all of which must be undone
+			int depth = 0;
+			Node node = root;
+			path[0] = root;
+
+			// Selection and expansion
+			boolean expanded = false;
+			while (!expanded && depth < maxMoves && !game.isSolved()) {
+				int[] moves = moveBuffers[depth];
+				int numMoves = game.possibleMoves(moves);
+				if (numMoves == 0) break;
+				Node next = select(node, moves, numMoves);
+				if (next == null) {
+					next = expand(node, moves, numMoves);
+					expanded = true;
+				}
+				numActions += play(next.move);
+				node = next;
+				path[++depth] = node;
+			}
+
+			// Playout
+			int pathLength = depth;
+			while (depth < maxMoves && !game.isSolved()) {
+				int[] moves = moveBuffers[depth];
+				int numMoves = game.possibleMoves(moves);
+				if (numMoves == 0) break;
+				numActions += play(moves[random.nextInt(numMoves)]);
+				depth++;
+			}
+
+			double reward = game.isSolved() ? 1 : reward(game);
+			for (int i = 0; i < numActions; i++)
+				game.undoMove();
+			for (int i = 0; i <= pathLength; i++) {
+				path[i].visits++;
+				path[i].totalReward += reward;
+			}
+		}
+
+		/**
+		 * Returns the child of the node with the highest UCT value among those whose moves are legal, or null if some
+		 * legal move has not been tried yet.
+		 */
+		private Node select(@NotNull Node node, int @NotNull [] moves, int numMoves) {
+			for (int i = 0; i < numMoves; i++)
+				if (node.child(moves[i]) == null) return null;
+			Node best = null;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < numMoves; i++) {
+				Node child = node.child(moves[i]);
+				child.availability++;
+				double value = child.uct();
+				if (value <= bestValue) continue;
+				best = child;
+				bestValue = value;
+			}
+			return best;
+		}
+
+		/**
+		 * Adds a random legal move that has not been tried yet as a child of the node.
+		 */
+		private @NotNull Node expand(@NotNull Node node, int @NotNull [] moves, int numMoves) {
+			int numUntried = 0;
+			for (int i = 0; i < numMoves; i++) {
+				Node child = node.child(moves[i]);
+				if (child == null) untriedMoves[numUntried++] = moves[i];
+				else child.availability++;
+			}
+			Node child = node.addChild(untriedMoves[random.nextInt(numUntried)]);
+			child.availability++;
+			return child;
+		}
+
+		/**
+		 * Makes the move, then turns over any face-down card it uncovered, and returns the number of actions taken.
+		 */
+		private int play(int move) {
+			game.makeMove(Move.decode(move));
+			return 1 + determinization.revealUncoveredCards(game);
+		}
+	}
+}
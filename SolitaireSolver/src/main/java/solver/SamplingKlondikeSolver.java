@@ -0,0 +1,168 @@
+package solver;
+
+import model.Move;
+import model.klondike.Klondike;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Chooses moves by determinized sampling: the unseen cards are dealt at random to the face-down places many times over,
+ * each deal is searched by a {@link KlondikeSolver} that knows the whole deal, and the move chosen for the most deals
+ * wins.
+ * <p>
+ * The deals are spread over a number of threads, each searching one deal at a time. Each deal is searched for at most
+ * a fixed time, so the more threads and the more time, the more deals are searched; a longer time limit buys more
+ * deals, not deeper searches of each.
+ */
+public class SamplingKlondikeSolver implements Solver<Klondike> {
+	/**
+	 * The longest a deal is searched for, unless maxSearchDepth is reached first. Many shallow searches of different
+	 * deals tell more than a few deep ones, as each deal is only one guess at the face-down cards.
+	 */
+	private static final long TIME_PER_DEAL = Duration.ofMillis(10).toNanos();
+	/**
+	 * The transposition table is cleared before each deal is searched, as the scores of one deal are wrong for
+	 * another, so it is kept small to be cheap to clear.
+	 */
+	private static final int DEAL_TRANSPOSITION_TABLE_SIZE = 1 << 16;
+
+	private final int parallelism;
+	/**
+	 * Runs the threads when searching with more than one; null otherwise.
+	 */
+	private final ForkJoinPool pool;
+	private final SplittableRandom random;
+	/**
+	 * Searches positions with no face-down cards, which have only one deal, with the threads of {@link #pool}.
+	 */
+	private final KlondikeSolver solver;
+	/**
+	 * One solver per thread, each searching one deal after the other.
+	 */
+	private final KlondikeSolver @NotNull [] dealSolvers;
+
+	public SamplingKlondikeSolver() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism the number of threads to search deals with
+	 */
+	public SamplingKlondikeSolver(int parallelism) {
+		this(parallelism, new SplittableRandom());
+	}
+
+	/**
+	 * @param parallelism the number of threads to search deals with
+	 * @param seed        seeds the random deals
+	 */
+	public SamplingKlondikeSolver(int parallelism, long seed) {
+		this(parallelism, new SplittableRandom(seed));
+	}
+
+	private SamplingKlondikeSolver(int parallelism, @NotNull SplittableRandom random) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Error: parallelism must be >= 1, was " + parallelism);
+		this.parallelism = parallelism;
+		this.random = random;
+		pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+		solver = new KlondikeSolver(KlondikeSolver.DEFAULT_TRANSPOSITION_TABLE_SIZE, parallelism, pool);
+		dealSolvers = new KlondikeSolver[parallelism];
+		for (int i = 0; i < parallelism; i++)
+			dealSolvers[i] = new KlondikeSolver(DEAL_TRANSPOSITION_TABLE_SIZE);
+	}
+
+	/**
+	 * Searches random deals of the face-down cards until maxTime has passed, and returns the move of the given
+	 * position chosen for the most deals. If no card is face down, there is only one deal, which is searched for the
+	 * whole time. A move to the foundations that can never be a mistake, see {@link Klondike#safeMoveToFoundation()},
+	 * is returned at once, as it would be for every deal.
+	 *
+	 * @param maxSearchDepth the max search depth of the search of each deal
+	 */
+	@Override
+	public Move getBestMove(@NotNull Klondike game, int maxSearchDepth, @NotNull TemporalAmount maxTime) {
+		if (game == null)
+			throw new IllegalArgumentException("Error: game must not be null");
+		if (maxSearchDepth <= 0)
+			throw new IllegalArgumentException("Error: maxSearchDepth must be >= 1");
+		if (maxTime == null)
+			throw new IllegalArgumentException("Error: maxTime must not be null");
+		int[] possibleMoves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		int numPossibleMoves = game.possibleMoves(possibleMoves);
+		if (numPossibleMoves < 1)
+			throw new IllegalArgumentException("Error: No possible moves");
+		if (numPossibleMoves == 1) return Move.decode(possibleMoves[0]);
+		int safeMove = game.safeMoveToFoundation();
+		if (safeMove != Klondike.NO_SAFE_MOVE) return Move.decode(safeMove);
+		if (game.getNumberOfUnknownCards() == 0)
+			return solver.getBestMove(game, maxSearchDepth, maxTime);
+
+		long startTime = System.nanoTime();
+		long timeBudget = KlondikeSolver.timeBudgetInNanos(maxTime);
+		AtomicIntegerArray votes = new AtomicIntegerArray(Move.NUMBER_OF_ENCODED_MOVES);
+		if (pool == null) {
+			new Sampler(game.deepCopy(), dealSolvers[0], random, maxSearchDepth, votes).sampleUntil(startTime, timeBudget);
+		} else {
+			List<Callable<Void>> workers = new ArrayList<>(parallelism);
+			for (int i = 0; i < parallelism; i++) {
+				Sampler sampler = new Sampler(game.deepCopy(), dealSolvers[i], random.split(), maxSearchDepth, votes);
+				workers.add(() -> {
+					sampler.sampleUntil(startTime, timeBudget);
+					return null;
+				});
+			}
+			pool.invokeAll(workers);
+		}
+
+		int bestMove = possibleMoves[0];
+		for (int i = 1; i < numPossibleMoves; i++) // In move order, so that ties go to the move generated first
+			if (votes.get(possibleMoves[i]) > votes.get(bestMove)) bestMove = possibleMoves[i];
+		return Move.decode(bestMove);
+	}
+
+	@Override
+	public void close() {
+		if (pool != null) pool.shutdown(); // The solvers search with it or with no threads of their own
+	}
+
+	/**
+	 * One thread's share of the deals. Searches its own copy of the game, which is left as it was given after each
+	 * search.
+	 */
+	private static final class Sampler {
+		private final Klondike game;
+		private final Determinization determinization;
+		private final KlondikeSolver solver;
+		private final SplittableRandom random;
+		private final int maxSearchDepth;
+		private final AtomicIntegerArray votes;
+
+		private Sampler(@NotNull Klondike game, @NotNull KlondikeSolver solver, @NotNull SplittableRandom random,
+		                int maxSearchDepth, @NotNull AtomicIntegerArray votes) {
+			this.game = game;
+			this.determinization = new Determinization(game);
+			this.solver = solver;
+			this.random = random;
+			this.maxSearchDepth = maxSearchDepth;
+			this.votes = votes;
+		}
+
+		private void sampleUntil(long startTime, long timeBudget) {
+			for (long timeLeft = timeBudget; timeLeft > 0; timeLeft = timeBudget - (System.nanoTime() - startTime)) {
+				determinization.deal(game, random);
+				solver.clearTranspositionTable();
+				Move move = solver.getBestMove(game, determinization, maxSearchDepth, Duration.ofNanos(Math.min(TIME_PER_DEAL, timeLeft)));
+				votes.incrementAndGet(move.encode());
+			}
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package solver;
+
+import model.Move;
+import model.Solitaire;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.temporal.TemporalAmount;
+
+
+public interface Solver<T extends Solitaire> extends AutoCloseable {
+	Move getBestMove(T game, int maxSearchDepth, TemporalAmount maxTime);
+
+	/**
+	 * Returns what the last call to getBestMove did, or is doing if it has not returned yet. Solvers that keep no stats
+	 * report nothing done.
+	 */
+	default @NotNull SolverStats getStats() {
+		return SolverStats.NONE;
+	}
+
+	/**
+	 * Shuts down any threads of the solver, after which it must not be used.
+	 */
+	@Override
+	default void close() {
+	}
+}
@@ -0,0 +1,193 @@
+package solver;
+
+import model.klondike.Klondike;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What one search did, see {@link Solver#getStats()}. Safe to read while the search is still running, from any
+ * thread, in which case it tells what the search has done so far.
+ * <p>
+ * Each search thread counts in plain fields of its own {@link Counters}, and adds them to the stats now and then, so
+ * that counting costs next to nothing and can be left on. The stats add them up in {@link LongAdder}s, which threads
+ * can add to at the same time without contending.
+ */
+public final class SolverStats {
+	/**
+	 * The stats of a solver that keeps none: nothing searched, in no time.
+	 */
+	static final SolverStats NONE = new SolverStats();
+
+	static {
+		NONE.finish();
+	}
+
+	/**
+	 * Measures the bytes allocated by a thread, or null if the JVM cannot.
+	 */
+	private static final com.sun.management.ThreadMXBean THREADS =
+			ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+					&& threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()
+					? threads : null;
+
+	private final long startTime = System.nanoTime();
+	/**
+	 * The time the search finished at, or 0 while it is running.
+	 */
+	private volatile long endTime = 0;
+	private final LongAdder nodes = new LongAdder();
+	private final LongAccumulator depth = new LongAccumulator(Math::max, 0);
+	private final LongAdder transpositionTableProbes = new LongAdder();
+	private final LongAdder transpositionTableHits = new LongAdder();
+	private final LongAdder cutoffs = new LongAdder();
+	private final LongAdder moveGenerationNanos = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+
+	SolverStats() {
+	}
+
+	/**
+	 * Returns the number of positions searched.
+	 */
+	public long getNodes() {
+		return nodes.sum();
+	}
+
+	public double getNodesPerSecond() {
+		long nanos = getTime().toNanos();
+		return nanos == 0 ? 0 : getNodes() * 1e9 / nanos;
+	}
+
+	/**
+	 * Returns the depth of the deepest search finished, in moves.
+	 */
+	public int getDepth() {
+		return depth.intValue();
+	}
+
+	/**
+	 * Returns the number of times a position was looked up among those already searched.
+	 */
+	public long getTranspositionTableProbes() {
+		return transpositionTableProbes.sum();
+	}
+
+	/**
+	 * Returns the number of lookups that found the position.
+	 */
+	public long getTranspositionTableHits() {
+		return transpositionTableHits.sum();
+	}
+
+	/**
+	 * Returns the number of positions whose moves were not all searched, because what was already known about them
+	 * was enough.
+	 */
+	public long getCutoffs() {
+		return cutoffs.sum();
+	}
+
+	/**
+	 * Returns an estimate of the time spent generating moves, from timing a sample of the generations.
+	 */
+	public @NotNull Duration getMoveGenerationTime() {
+		return Duration.ofNanos(moveGenerationNanos.sum());
+	}
+
+	/**
+	 * Returns the bytes allocated by the threads of the search while searching, as measured by the JVM, or 0 if it
+	 * cannot measure them. Other work done by those threads meanwhile counts too.
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes.sum();
+	}
+
+	/**
+	 * Returns the time the search took, or has taken so far if it is still running.
+	 */
+	public @NotNull Duration getTime() {
+		long endTime = this.endTime;
+		return Duration.ofNanos((endTime == 0 ? System.nanoTime() : endTime) - startTime);
+	}
+
+	void reachedDepth(int depth) {
+		this.depth.accumulate(depth);
+	}
+
+	void addAllocatedBytes(long bytes) {
+		allocatedBytes.add(bytes);
+	}
+
+	void finish() {
+		endTime = System.nanoTime();
+	}
+
+	/**
+	 * Returns the bytes allocated by the current thread so far, or 0 if the JVM cannot measure them.
+	 */
+	static long allocatedBytesOfCurrentThread() {
+		return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+	}
+
+	@Override
+	public String toString() {
+		return "SolverStats{" +
+				"nodes=" + getNodes() +
+				", nodesPerSecond=" + Math.round(getNodesPerSecond()) +
+				", depth=" + getDepth() +
+				", transpositionTableProbes=" + getTranspositionTableProbes() +
+				", transpositionTableHits=" + getTranspositionTableHits() +
+				", cutoffs=" + getCutoffs() +
+				", moveGenerationTime=" + getMoveGenerationTime() +
+				", allocatedBytes=" + getAllocatedBytes() +
+				", time=" + getTime() +
+				'}';
+	}
+
+	/**
+	 * The counts of one search thread, not safe to share between threads, until they are added to the stats.
+	 */
+	static final class Counters {
+		/**
+		 * Reading the clock is not free, so only one move generation in this many is timed, and counts for all of them.
+		 * Must be a power of two.
+		 */
+		private static final int MOVE_GENERATIONS_PER_TIMING = 64;
+
+		long nodes = 0;
+		long transpositionTableProbes = 0;
+		long transpositionTableHits = 0;
+		long cutoffs = 0;
+		private long moveGenerations = 0;
+		private long moveGenerationNanos = 0;
+
+		/**
+		 * Generates the moves of the game, see {@link Klondike#possibleMoves(int[])}, timing a sample of the calls.
+		 */
+		int possibleMoves(@NotNull Klondike game, int @NotNull [] moves) {
+			if ((++moveGenerations & (MOVE_GENERATIONS_PER_TIMING - 1)) != 0) return game.possibleMoves(moves);
+			long start = System.nanoTime();
+			int numMoves = game.possibleMoves(moves);
+			moveGenerationNanos += (System.nanoTime() - start) * MOVE_GENERATIONS_PER_TIMING;
+			return numMoves;
+		}
+
+		/**
+		 * Adds the counts to the stats and starts counting from 0 again.
+		 */
+		@Contract(mutates = "this,param")
+		void addTo(@NotNull SolverStats stats) {
+			stats.nodes.add(nodes);
+			stats.transpositionTableProbes.add(transpositionTableProbes);
+			stats.transpositionTableHits.add(transpositionTableHits);
+			stats.cutoffs.add(cutoffs);
+			stats.moveGenerationNanos.add(moveGenerationNanos);
+			nodes = transpositionTableProbes = transpositionTableHits = cutoffs = moveGenerationNanos = 0;
+		}
+	}
+}
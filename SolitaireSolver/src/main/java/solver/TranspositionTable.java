@@ -0,0 +1,108 @@
+package solver;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table remembering, for each position searched, how deep it was searched, the resulting score and
+ * the best move found. Positions are identified only by their key, so two positions with the same key are
+ * indistinguishable; when two keys compete for the same slot, the newest or deepest result is kept.
+ * <p>
+ * The table is safe to share between threads without locking. Each result is packed into a single long, its entry,
+ * and stored next to the key XOR-ed with the entry. A thread reading a slot while another writes it may see the new
+ * entry with the old key or vice versa, but then the two no longer XOR to the key probed for, and the slot is simply
+ * treated as empty.
+ */
+final class TranspositionTable {
+	/**
+	 * Returned by {@link #probe(long)} when no result is stored. As searching to depth 0 is just evaluating the
+	 * position, which is never worth storing, no entry has depth 0, so no entry is 0.
+	 */
+	static final long NOT_FOUND = 0;
+	static final int NO_MOVE = -1;
+
+	/**
+	 * Entry layout: the score in the high 32 bits, then the depth in 16 bits, then the best move + 1 in the low 16
+	 * bits, so that {@link #NO_MOVE} is 0.
+	 */
+	private static final int SCORE_SHIFT = 32;
+	private static final int DEPTH_SHIFT = 16;
+	private static final int MAX_DEPTH = 0xFFFF;
+	private static final long FIELD_MASK = 0xFFFF;
+
+	private final int indexMask;
+	/**
+	 * The key of each slot XOR-ed with its entry.
+	 */
+	private final long[] checks;
+	private final long[] entries;
+
+	TranspositionTable(int size) {
+		if (size < 1 || Integer.bitCount(size) != 1)
+			throw new IllegalArgumentException("Error: Size of transposition table must be a positive power of two, was " + size);
+		indexMask = size - 1;
+		checks = new long[size];
+		entries = new long[size];
+	}
+
+	/**
+	 * Returns the entry holding the result for the given key, or {@link #NOT_FOUND} if no result is stored. The
+	 * result is read with {@link #depthOf(long)}, {@link #scoreOf(long)} and {@link #bestMoveOf(long)}.
+	 */
+	@Contract(pure = true)
+	long probe(long key) {
+		int index = indexOf(key);
+		long entry = entries[index];
+		if (entry == NOT_FOUND || (checks[index] ^ entry) != key) return NOT_FOUND;
+		return entry;
+	}
+
+	@Contract(pure = true)
+	static int depthOf(long entry) {
+		return (int) (entry >>> DEPTH_SHIFT & FIELD_MASK);
+	}
+
+	@Contract(pure = true)
+	static int scoreOf(long entry) {
+		return (int) (entry >> SCORE_SHIFT);
+	}
+
+	@Contract(pure = true)
+	static int bestMoveOf(long entry) {
+		return (int) (entry & FIELD_MASK) - 1;
+	}
+
+	/**
+	 * @param depth clamped to 65535, which no search that finishes in time will reach anyway
+	 */
+	void store(long key, int depth, int score, int bestMove) {
+		if (depth < 1)
+			throw new IllegalArgumentException("Error: Depth must be >= 1, was " + depth);
+		long stored = probe(key);
+		if (stored != NOT_FOUND && depthOf(stored) > depth) return; // Keep the deeper result for the same position
+		long entry = (long) score << SCORE_SHIFT
+				| (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+				| (bestMove + 1) & FIELD_MASK;
+		int index = indexOf(key);
+		entries[index] = entry;
+		checks[index] = key ^ entry;
+	}
+
+	/**
+	 * Forgets every result stored.
+	 */
+	void clear() {
+		Arrays.fill(entries, NOT_FOUND);
+		Arrays.fill(checks, 0);
+	}
+
+	@Contract(pure = true)
+	int size() {
+		return entries.length;
+	}
+
+	private int indexOf(long key) {
+		return (int) key & indexMask; // Zobrist keys are uniformly distributed, so the low bits are as good as any
+	}
+}
@@ -2,6 +2,8 @@ package model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CardTest {
@@ -120,4 +122,38 @@ class CardTest {
 		assertFalse(Card.isUnknown(8963465));
 	}
 
-}
\ No newline at end of file
+	@Test
+	void from_index_should_invert_to_index() {
+		for (Integer card : Card.fullDeck())
+			assertEquals(card, Card.fromIndex(Card.toIndex(card)));
+	}
+
+	@Test
+	void indices_should_be_distinct_and_in_range() {
+		boolean[] seen = new boolean[Card.NumberOfCards];
+		for (Integer card : Card.fullDeck()) {
+			int index = Card.toIndex(card);
+			assertFalse(seen[index], "Index " + index + " is used by more than one card");
+			seen[index] = true;
+		}
+	}
+
+	@Test
+	void from_mask_should_invert_to_mask() {
+		long mask = 0;
+		for (Integer card : Card.fullDeck())
+			mask |= Card.toMask(card);
+		assertEquals(Set.of(Card.fullDeck()), Card.fromMask(mask));
+	}
+
+	@Test
+	void masks_should_be_distinct_single_bits() {
+		long seen = 0;
+		for (Integer card : Card.fullDeck()) {
+			long mask = Card.toMask(card);
+			assertEquals(1, Long.bitCount(mask));
+			assertEquals(0, seen & mask, "Bit of " + Card.asString(card) + " is used by more than one card");
+			seen |= mask;
+		}
+	}
+}
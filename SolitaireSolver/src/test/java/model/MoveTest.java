@@ -36,5 +36,52 @@ class MoveTest {
 		assertEquals(Optional.of(Card.Two), move.destination());
 	}
 
+	@Test
+	void decode_should_invert_encode() {
+		assertEquals(new Move(Card.Two, Card.Three | Card.Colour), Move.decode(Move.encode(Card.Two, Card.Three | Card.Colour)));
+		assertEquals(new Move(Card.King | Card.Type), Move.decode(Move.encode(Card.King | Card.Type)));
+	}
+
+	@Test
+	void encoded_moves_should_be_in_range() {
+		assertTrue(Move.encode(Card.King | Card.Colour | Card.Type) < Move.NUMBER_OF_ENCODED_MOVES);
+		assertTrue(Move.encode(Card.King | Card.Colour | Card.Type, Card.King | Card.Colour | Card.Type) < Move.NUMBER_OF_ENCODED_MOVES);
+		assertTrue(Move.encode(Card.Ace) >= 0);
+	}
+
+	@Test
+	void encoded_move_without_destination_should_not_have_destination() {
+		assertFalse(Move.hasDestination(Move.encode(Card.Ace)));
+		assertTrue(Move.hasDestination(Move.encode(Card.Ace, Card.Two | Card.Colour)));
+	}
+
+	@Test
+	void decode_should_throw_exception_if_encoded_move_is_invalid() {
+		assertThrows(IllegalArgumentException.class, () -> Move.decode(-1));
+		assertThrows(IllegalArgumentException.class, () -> Move.decode(Move.NUMBER_OF_ENCODED_MOVES));
+	}
 
-}
\ No newline at end of file
+	@Test
+	void decode_should_return_same_instance() {
+		int encodedMove = Move.encode(Card.Five, Card.Six | Card.Colour);
+		assertSame(Move.decode(encodedMove), Move.decode(encodedMove));
+	}
+
+	@Test
+	void encode_should_invert_decode() {
+		for (int encodedMove = 0; encodedMove < Move.NUMBER_OF_ENCODED_MOVES; encodedMove++)
+			assertEquals(encodedMove, Move.decode(encodedMove).encode());
+	}
+
+	@Test
+	void encode_should_throw_exception_if_card_is_unknown() {
+		assertThrows(IllegalStateException.class, () -> new Move(Card.Unknown).encode());
+		assertThrows(IllegalStateException.class, () -> new Move(Card.Ace, Card.Unknown).encode());
+	}
+
+	@Test
+	void equal_moves_should_have_same_hashcode() {
+		assertEquals(new Move(Card.Ace, Card.Two).hashCode(), new Move(Card.Ace, Card.Two).hashCode());
+		assertEquals(new Move(Card.King).hashCode(), Move.decode(Move.encode(Card.King)).hashCode());
+	}
+}
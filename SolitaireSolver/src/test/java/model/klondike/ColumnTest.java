@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -134,6 +135,11 @@ class ColumnTest {
 		assertFalse(column.canAcceptCard(Card.Six));
 	}
 
+	@Test
+	void should_not_accept_card_if_last_card_is_unknown() {
+		assertFalse(new Column(1).canAcceptCard(Card.King | Card.Colour));
+	}
+
 	@Test
 	void reachable_cards_should_not_be_null() {
 		assertNotNull(new Column(0).reachableCards());
@@ -163,6 +169,25 @@ class ColumnTest {
 		assertEquals(1, column.reachableCards().size());
 	}
 
+	@Test
+	void reachable_cards_mask_should_match_reachable_cards_after_moves() {
+		Column column = new Column(1, Card.Queen, Card.Jack | Card.Colour, Card.Ten);
+		column.move(Card.Jack | Card.Colour, new MockCardContainer());
+		assertEquals(Set.of(Card.Queen), Card.fromMask(column.reachableCardsMask()));
+		column.move(Card.Queen, new MockCardContainer());
+		assertEquals(0, column.reachableCardsMask());
+		column.reveal(Card.Ace, 0);
+		assertEquals(Card.toMask(Card.Ace), column.reachableCardsMask());
+	}
+
+	@Test
+	void reachable_cards_mask_should_be_restored_by_undo() {
+		Column column = new Column(1, Card.Queen);
+		MoveMetaInformation info = column.move(Card.Queen, new Column(0, Card.King | Card.Colour));
+		column.undo(Card.Queen, info);
+		assertEquals(Card.toMask(Card.Queen), column.reachableCardsMask());
+	}
+
 	@Test
 	void receive_should_throw_exception_when_cannot_accept_card() {
 		Column column = new Column(0);
@@ -273,6 +298,13 @@ class ColumnTest {
 		assertDoesNotThrow(() -> column.undo(Card.Ace, info));
 	}
 
+	@Test
+	void equal_columns_should_have_same_hashcode_after_move() {
+		Column column = new Column(1, Card.King | Card.Colour, Card.Queen);
+		column.move(Card.Queen, new MockCardContainer());
+		assertEquals(new Column(1, Card.King | Card.Colour).hashCode(), column.hashCode());
+	}
+
 	@Test
 	void should_throw_exception_if_20_unknown_cards() {
 		assertThrows(IllegalArgumentException.class, () -> new Column(20), "Column should not be created with more than 19 Unknown cards.");
@@ -0,0 +1,112 @@
+package model.klondike;
+
+import model.Card;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealGeneratorTest {
+	private final DealGenerator generator = new DealGenerator();
+
+	/**
+	 * Shuffles a deck as the generator is meant to: by Fisher-Yates with a {@link SplittableRandom} of the seed.
+	 */
+	private static int[] shuffledDeck(long seed) {
+		int[] deck = new int[Card.NumberOfCards];
+		for (int i = 0; i < deck.length; i++)
+			deck[i] = Card.fromIndex(i);
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = deck.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int card = deck[i];
+			deck[i] = deck[j];
+			deck[j] = card;
+		}
+		return deck;
+	}
+
+	@Test
+	void deal_should_shuffle_as_splittable_random() {
+		for (long seed : new long[]{0, 1, 2, -1, Long.MIN_VALUE, Long.MAX_VALUE, 0x123456789abcdefL}) {
+			int[] deck = shuffledDeck(seed);
+			generator.deal(seed);
+			int next = 0;
+			for (int column = 0; column < 7; column++)
+				for (int position = 0; position < column; position++)
+					assertEquals(deck[next++], generator.getHiddenCard(column, position), "Seed " + seed);
+			for (int index = 0; next < deck.length; index++)
+				assertEquals(deck[next++], generator.getStockCard(index), "Seed " + seed);
+		}
+	}
+
+	@Test
+	void deal_should_give_same_deal_for_same_seed_after_other_deals() {
+		generator.deal(42);
+		Deal deal = generator.toDeal();
+		generator.deal(43);
+		generator.deal(42);
+		assertArrayEquals(deal.stock(), generator.toDeal().stock());
+		assertArrayEquals(deal.hiddenCards(), generator.toDeal().hiddenCards());
+	}
+
+	@Test
+	void to_deal_should_give_deal_from_seed() {
+		generator.deal(7);
+		Deal deal = generator.toDeal();
+		assertArrayEquals(Deal.fromSeed(7).stock(), deal.stock());
+		assertArrayEquals(Deal.fromSeed(7).hiddenCards(), deal.hiddenCards());
+	}
+
+	@Test
+	void to_deal_should_not_change_with_next_deal() {
+		generator.deal(7);
+		Deal deal = generator.toDeal();
+		int[] stock = deal.stock().clone();
+		generator.deal(8);
+		assertArrayEquals(stock, deal.stock());
+	}
+
+	@Test
+	void new_game_should_equal_new_game_of_deal() {
+		generator.deal(7);
+		assertEquals(Deal.fromSeed(7).newGame(), generator.newGame());
+	}
+
+	@Test
+	void reveal_uncovered_cards_should_reveal_card_dealt_face_down() {
+		generator.deal(7);
+		Klondike game = Klondike.newGame(new Stock(generator.toDeal().stock()));
+		assertEquals(6, generator.revealUncoveredCards(game));
+		assertEquals(generator.getHiddenCard(6, 5), game.columns[6].lastCard());
+	}
+
+	@Test
+	void get_stock_card_should_throw_exception_if_index_is_out_of_range() {
+		assertThrows(IllegalArgumentException.class, () -> generator.getStockCard(31));
+		assertThrows(IllegalArgumentException.class, () -> generator.getStockCard(-1));
+	}
+
+	@Test
+	void get_hidden_card_should_throw_exception_if_place_does_not_exist() {
+		assertThrows(IllegalArgumentException.class, () -> generator.getHiddenCard(7, 0));
+		assertThrows(IllegalArgumentException.class, () -> generator.getHiddenCard(3, 3));
+		assertThrows(IllegalArgumentException.class, () -> generator.getHiddenCard(0, 0));
+	}
+
+	@Test
+	void deal_should_deal_every_card_once() {
+		generator.deal(99);
+		Deal deal = generator.toDeal();
+		int[] cards = new int[Card.NumberOfCards];
+		int next = 0;
+		for (int card : deal.stock()) cards[next++] = card;
+		for (int[] column : deal.hiddenCards())
+			for (int card : column) cards[next++] = card;
+		Arrays.sort(cards);
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).sorted().toArray();
+		assertArrayEquals(deck, cards);
+	}
+}
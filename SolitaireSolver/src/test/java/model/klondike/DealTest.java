@@ -0,0 +1,95 @@
+package model.klondike;
+
+import model.Card;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealTest {
+	@Test
+	void from_seed_should_give_same_deal_for_same_seed() {
+		Deal deal = Deal.fromSeed(42);
+		Deal other = Deal.fromSeed(42);
+		assertArrayEquals(deal.stock(), other.stock());
+		assertArrayEquals(deal.hiddenCards(), other.hiddenCards());
+	}
+
+	@Test
+	void from_seed_should_give_different_deals_for_different_seeds() {
+		assertFalse(Arrays.equals(Deal.fromSeed(1).stock(), Deal.fromSeed(2).stock()));
+	}
+
+	@Test
+	void from_seed_should_deal_every_card_once() {
+		Deal deal = Deal.fromSeed(7);
+		int[] cards = IntStream.concat(Arrays.stream(deal.stock()),
+				Arrays.stream(deal.hiddenCards()).flatMapToInt(Arrays::stream)).sorted().toArray();
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).sorted().toArray();
+		assertArrayEquals(deck, cards);
+	}
+
+	@Test
+	void from_seed_should_deal_column_index_cards_face_down_to_each_column() {
+		int[][] hiddenCards = Deal.fromSeed(7).hiddenCards();
+		assertEquals(7, hiddenCards.length);
+		for (int column = 0; column < hiddenCards.length; column++)
+			assertEquals(column, hiddenCards[column].length);
+	}
+
+	@Test
+	void should_throw_exception_if_wrong_number_of_columns() {
+		assertThrows(IllegalArgumentException.class, () -> new Deal(new int[0], new int[6][0]));
+	}
+
+	@Test
+	void should_throw_exception_if_wrong_number_of_hidden_cards_in_column() {
+		int[][] hiddenCards = Deal.fromSeed(7).hiddenCards();
+		hiddenCards[3] = new int[2];
+		assertThrows(IllegalArgumentException.class, () -> new Deal(new int[0], hiddenCards));
+	}
+
+	@Test
+	void new_game_should_reveal_top_card_of_each_column() {
+		Deal deal = Deal.fromSeed(7);
+		Klondike game = deal.newGame();
+		for (int column = 1; column < 7; column++) {
+			assertFalse(game.hasUnknownTopCard(column));
+			assertEquals(column - 1, game.getNumberOfUnknownCards(column));
+		}
+		assertEquals(15, game.getNumberOfUnknownCards());
+	}
+
+	@Test
+	void reveal_uncovered_cards_should_reveal_nothing_if_no_top_card_is_face_down() {
+		Deal deal = Deal.fromSeed(7);
+		assertEquals(0, deal.revealUncoveredCards(deal.newGame()));
+	}
+
+	@Test
+	void should_copy_arrays_it_is_made_from() {
+		int[] stock = Deal.fromSeed(7).stock();
+		int[][] hiddenCards = Deal.fromSeed(7).hiddenCards();
+		Deal deal = new Deal(stock, hiddenCards);
+		stock[0] = stock[1];
+		hiddenCards[6][0] = hiddenCards[6][1];
+		assertEquals(Deal.fromSeed(7), deal);
+	}
+
+	@Test
+	void accessors_should_return_copies() {
+		Deal deal = Deal.fromSeed(7);
+		deal.stock()[0] = deal.stock()[1];
+		deal.hiddenCards()[6][0] = deal.hiddenCards()[6][1];
+		assertEquals(Deal.fromSeed(7), deal);
+	}
+
+	@Test
+	void should_be_equal_if_equal_cards() {
+		assertEquals(Deal.fromSeed(7), Deal.fromSeed(7));
+		assertEquals(Deal.fromSeed(7).hashCode(), Deal.fromSeed(7).hashCode());
+		assertNotEquals(Deal.fromSeed(7), Deal.fromSeed(8));
+	}
+}
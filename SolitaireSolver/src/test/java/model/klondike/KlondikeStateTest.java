@@ -0,0 +1,75 @@
+package model.klondike;
+
+import model.Card;
+import model.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KlondikeStateTest {
+
+	private static Klondike game() {
+		Stock stock = new Stock(Card.Two, Card.Three, Card.King, Card.Seven | Card.Type);
+		Foundation[] foundations = new Foundation[]{new Foundation(), new Foundation(Card.Four | Card.Colour | Card.Type)};
+		Column[] columns = new Column[]{new Column(0, Card.Ace), new Column(2, Card.Five | Card.Type, Card.Four | Card.Colour), new Column(0)};
+		return new Klondike(foundations, columns, stock);
+	}
+
+	@Test
+	void to_klondike_should_return_equal_game() {
+		Klondike game = game();
+		assertEquals(game, KlondikeState.of(game).toKlondike());
+	}
+
+	@Test
+	void to_klondike_should_return_equal_game_after_moves() {
+		Klondike game = game();
+		game.makeMove(new Move(Card.Ace));
+		game.makeMove(new Move(Card.King));
+		game.makeMove(new Move(Card.Three, Card.Four | Card.Colour));
+		assertEquals(game, KlondikeState.of(game).toKlondike());
+	}
+
+	@Test
+	void to_klondike_should_keep_zobrist_key() {
+		Klondike game = game();
+		game.makeMove(new Move(Card.King));
+		assertEquals(game.getZobristKey(), KlondikeState.of(game).toKlondike().getZobristKey());
+	}
+
+	@Test
+	void states_of_equal_games_should_be_equal() {
+		assertEquals(KlondikeState.of(game()), KlondikeState.of(game()));
+		assertEquals(KlondikeState.of(game()).hashCode(), KlondikeState.of(game()).hashCode());
+	}
+
+	@Test
+	void states_of_different_games_should_not_be_equal() {
+		Klondike game = game();
+		KlondikeState before = KlondikeState.of(game);
+		game.makeMove(new Move(Card.Ace));
+		assertNotEquals(before, KlondikeState.of(game));
+	}
+
+	@Test
+	void state_should_not_change_with_game() {
+		Klondike game = game();
+		KlondikeState state = KlondikeState.of(game);
+		game.makeMove(new Move(Card.Ace));
+		assertEquals(KlondikeState.of(game()), state);
+	}
+
+	@Test
+	void state_should_store_unknown_cards_as_count() {
+		Klondike game = new Klondike(new Foundation[0], new Column[]{new Column(19)}, Stock.Empty);
+		assertEquals(2 + 2 + 2, KlondikeState.of(game).getSizeInBytes());
+	}
+
+	@Test
+	void should_throw_exception_if_unknown_card_above_known_card() {
+		Column column = new Column(2);
+		column.reveal(Card.Ace, 0);
+		Klondike game = new Klondike(new Foundation[0], new Column[]{column}, Stock.Empty);
+		assertThrows(IllegalArgumentException.class, () -> KlondikeState.of(game));
+	}
+}
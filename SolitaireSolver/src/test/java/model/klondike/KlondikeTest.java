@@ -6,6 +6,7 @@ import model.IllegalMoveException;
 import model.Move;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -325,6 +326,27 @@ class KlondikeTest {
 		assertEquals(Set.of(Card.Four | Card.Colour), foundations[0].reachableCards());
 	}
 
+	@Test
+	void make_move_should_throw_exception_if_destination_card_is_covered() {
+		Column[] columns = new Column[]{new Column(0, Card.Four | Card.Colour), new Column(0, Card.Five, Card.Four | Card.Type | Card.Colour)};
+		Klondike klondike = new Klondike(new Foundation[0], columns, Stock.Empty);
+		assertThrows(IllegalMoveException.class, () -> klondike.makeMove(new Move(Card.Four | Card.Colour, Card.Five)));
+	}
+
+	@Test
+	void make_move_should_find_cards_moved_by_earlier_moves() {
+		Column[] columns = new Column[]{new Column(0, Card.Four | Card.Colour), new Column(0, Card.Five), new Column(0, Card.Six | Card.Colour)};
+		Klondike klondike = new Klondike(new Foundation[0], columns, new Stock(Card.Three));
+		klondike.makeMove(new Move(Card.Four | Card.Colour, Card.Five));
+		klondike.makeMove(new Move(Card.Three, Card.Four | Card.Colour));
+		klondike.makeMove(new Move(Card.Five, Card.Six | Card.Colour));
+		assertEquals(Card.Three, columns[2].lastCard());
+		klondike.undoMove();
+		klondike.undoMove();
+		klondike.makeMove(new Move(Card.Three, Card.Four | Card.Colour));
+		assertEquals(Card.Three, columns[1].lastCard());
+	}
+
 	@Test
 	void make_move_should_throw_exception_if_moving_non_king_or_ace_and_no_specified_destination() {
 		Foundation[] foundations = new Foundation[]{new Foundation(Card.Three | Card.Colour), new Foundation()};
@@ -425,5 +447,300 @@ class KlondikeTest {
 		assertEquals(originalState, klondike);
 	}
 
+	@Test
+	void undo_move_should_undo_long_history() {
+		Column[] columns = new Column[]{new Column(0, Card.King, Card.Queen | Card.Colour), new Column(0)};
+		Klondike klondike = new Klondike(new Foundation[0], columns, Stock.Empty);
+		int numMoves = 1000;
+		for (int i = 0; i < numMoves; i++) klondike.makeMove(new Move(Card.King)); // Back and forth between the columns
+		assertEquals(new Column(0, Card.King, Card.Queen | Card.Colour), columns[numMoves % 2]);
+		for (int i = 0; i < numMoves; i++) klondike.undoMove();
+		assertEquals(new Column(0, Card.King, Card.Queen | Card.Colour), columns[0]);
+		assertThrows(EmptyHistoryException.class, klondike::undoMove);
+	}
+
+	@Test
+	void reveal_top_card_should_make_card_movable() {
+		Klondike klondike = new Klondike(new Foundation[]{new Foundation()}, new Column[]{new Column(2)}, Stock.Empty);
+		klondike.revealTopCard(0, Card.Ace);
+		assertTrue(klondike.possibleMoves().contains(new Move(Card.Ace)));
+	}
+
+	@Test
+	void undo_move_should_conceal_revealed_card() {
+		Klondike klondike = new Klondike(new Foundation[]{new Foundation()}, new Column[]{new Column(2)}, Stock.Empty);
+		long key = klondike.getZobristKey();
+		klondike.revealTopCard(0, Card.Ace);
+		klondike.makeMove(new Move(Card.Ace));
+		klondike.revealTopCard(0, Card.Two | Card.Colour);
+		klondike.undoMove();
+		klondike.undoMove();
+		klondike.undoMove();
+		assertEquals(new Klondike(new Foundation[]{new Foundation()}, new Column[]{new Column(2)}, Stock.Empty), klondike);
+		assertEquals(key, klondike.getZobristKey());
+		assertEquals(Card.toMask(Card.Ace), klondike.getUnseenCardsMask() & Card.toMask(Card.Ace));
+	}
+
+	@Test
+	void reachable_cards_of_column_should_be_its_face_up_cards() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(2, Card.King), new Column(1)}, Stock.Empty);
+		assertEquals(Card.toMask(Card.King), klondike.getReachableCardsMask(0));
+		assertEquals(0, klondike.getReachableCardsMask(1));
+	}
+
+	@Test
+	void reveal_top_card_should_throw_exception_if_card_is_face_up() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(2)}, new Stock(Card.Ace));
+		assertThrows(IllegalArgumentException.class, () -> klondike.revealTopCard(0, Card.Ace));
+	}
+
+	@Test
+	void reveal_top_card_should_throw_exception_if_top_card_is_face_up() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(2, Card.King)}, Stock.Empty);
+		assertThrows(IllegalArgumentException.class, () -> klondike.revealTopCard(0, Card.Ace));
+	}
+
+	@Test
+	void reveal_uncovered_cards_should_reveal_face_down_top_cards_but_unknown_ones() {
+		Column[] columns = new Column[]{new Column(2), new Column(1), new Column(1, Card.King)};
+		Klondike klondike = new Klondike(new Foundation[0], columns, Stock.Empty);
+		int[][] hiddenCards = {{Card.Two, Card.Ace}, {Card.Unknown}, {Card.Three}};
+		assertEquals(1, klondike.revealUncoveredCards(hiddenCards));
+		assertEquals(Card.Ace, klondike.columns[0].lastCard());
+		assertTrue(klondike.hasUnknownTopCard(1));
+		klondike.undoMove();
+		assertTrue(klondike.hasUnknownTopCard(0));
+	}
+
+	@Test
+	void reveal_uncovered_cards_should_throw_exception_if_wrong_number_of_columns() {
+		Klondike klondike = Klondike.newGame(Stock.Empty);
+		assertThrows(IllegalArgumentException.class, () -> klondike.revealUncoveredCards(new int[6][0]));
+	}
+
+	@Test
+	void deep_copy_should_not_change_with_original() {
+		Column[] columns = new Column[]{new Column(1, Card.Four | Card.Colour), new Column(0, Card.Five)};
+		Klondike klondike = new Klondike(new Foundation[]{new Foundation()}, columns, new Stock(Card.Ace));
+		Klondike copy = klondike.deepCopy();
+		klondike.makeMove(new Move(Card.Four | Card.Colour, Card.Five));
+		klondike.makeMove(new Move(Card.Ace));
+		assertEquals(new Klondike(new Foundation[]{new Foundation()}, new Column[]{new Column(1, Card.Four | Card.Colour), new Column(0, Card.Five)}, new Stock(Card.Ace)), copy);
+	}
+
+	@Test
+	void should_throw_exception_if_more_than_7_columns() {
+		Column[] columns = new Column[8];
+		for (int i = 0; i < columns.length; i++) columns[i] = new Column(0);
+		assertThrows(IllegalArgumentException.class, () -> new Klondike(new Foundation[0], columns, Stock.Empty));
+	}
+
+	@Test
+	void zobrist_key_should_be_restored_after_undo() {
+		Klondike klondike = new Klondike(new Foundation[]{new Foundation()}, new Column[]{new Column(0, Card.Ace)}, new Stock(Card.Two));
+		long key = klondike.getZobristKey();
+		klondike.makeMove(new Move(Card.Ace));
+		klondike.makeMove(new Move(Card.Two, Card.Ace));
+		klondike.undoMove();
+		klondike.undoMove();
+		assertEquals(key, klondike.getZobristKey());
+	}
+
+	@Test
+	void zobrist_key_should_change_after_move() {
+		Klondike klondike = new Klondike(new Foundation[]{new Foundation()}, new Column[0], new Stock(Card.Ace));
+		long key = klondike.getZobristKey();
+		klondike.makeMove(new Move(Card.Ace));
+		assertNotEquals(key, klondike.getZobristKey());
+	}
+
+	@Test
+	void zobrist_key_should_not_depend_on_order_of_moves() {
+		Move first = new Move(Card.Queen | Card.Colour, Card.King);
+		Move second = new Move(Card.Queen | Card.Colour | Card.Type, Card.King | Card.Type);
+		Klondike klondike1 = transpositionGame();
+		Klondike klondike2 = transpositionGame();
+		klondike1.makeMove(first);
+		klondike1.makeMove(second);
+		klondike2.makeMove(second);
+		klondike2.makeMove(first);
+		assertEquals(klondike1.getZobristKey(), klondike2.getZobristKey());
+	}
+
+	@Test
+	void canonical_key_should_not_depend_on_order_of_columns() {
+		Column[] columns = new Column[]{new Column(2, Card.King), new Column(0), new Column(1, Card.Five | Card.Colour)};
+		Column[] reordered = new Column[]{new Column(1, Card.Five | Card.Colour), new Column(2, Card.King), new Column(0)};
+		Klondike klondike1 = new Klondike(new Foundation[]{new Foundation(Card.Two), new Foundation()}, columns, new Stock(Card.Ace | Card.Type));
+		Klondike klondike2 = new Klondike(new Foundation[]{new Foundation(), new Foundation(Card.Two)}, reordered, new Stock(Card.Ace | Card.Type));
+		assertEquals(klondike1.getCanonicalKey(), klondike2.getCanonicalKey());
+		assertNotEquals(klondike1.getZobristKey(), klondike2.getZobristKey());
+	}
+
+	@Test
+	void canonical_key_should_not_depend_on_which_suit_of_a_colour_is_which() {
+		Column[] columns = new Column[]{new Column(0, Card.King, Card.Queen | Card.Colour), new Column(1, Card.Five | Card.Type)};
+		Column[] swapped = new Column[]{new Column(0, Card.King | Card.Type, Card.Queen | Card.Colour), new Column(1, Card.Five)};
+		Klondike klondike1 = new Klondike(new Foundation[]{new Foundation(Card.Two)}, columns, new Stock(Card.Ace | Card.Type));
+		Klondike klondike2 = new Klondike(new Foundation[]{new Foundation(Card.Two | Card.Type)}, swapped, new Stock(Card.Ace));
+		assertEquals(klondike1.getCanonicalKey(), klondike2.getCanonicalKey());
+	}
+
+	@Test
+	void canonical_key_should_keep_order_of_stock_when_swapping_suits() {
+		Column[] columns = new Column[]{new Column(0, Card.King), new Column(1, Card.Five | Card.Colour)};
+		Column[] swapped = new Column[]{new Column(0, Card.King | Card.Type), new Column(1, Card.Five | Card.Colour)};
+		Klondike klondike = new Klondike(new Foundation[0], columns, new Stock(Card.Ace, Card.Ace | Card.Type));
+		Klondike relabeled = new Klondike(new Foundation[0], swapped, new Stock(Card.Ace | Card.Type, Card.Ace));
+		Klondike reordered = new Klondike(new Foundation[0], swapped, new Stock(Card.Ace, Card.Ace | Card.Type));
+		assertEquals(klondike.getCanonicalKey(), relabeled.getCanonicalKey());
+		assertNotEquals(klondike.getCanonicalKey(), reordered.getCanonicalKey());
+	}
+
+	@Test
+	void canonical_key_should_depend_on_suits_of_different_colours() {
+		Column[] columns = new Column[]{new Column(0, Card.King)};
+		Column[] swapped = new Column[]{new Column(0, Card.King | Card.Colour)};
+		Klondike klondike1 = new Klondike(new Foundation[0], columns, Stock.Empty);
+		Klondike klondike2 = new Klondike(new Foundation[0], swapped, Stock.Empty);
+		assertNotEquals(klondike1.getCanonicalKey(), klondike2.getCanonicalKey());
+	}
+
+	@Test
+	void canonical_key_should_be_restored_after_undo() {
+		Klondike klondike = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		long key = klondike.getCanonicalKey();
+		klondike.revealTopCard(1, Card.Ace | Card.Colour);
+		klondike.makeMove(new Move(Card.Ace | Card.Colour));
+		klondike.makeMove(new Move(Card.Ace));
+		klondike.undoMove();
+		klondike.undoMove();
+		klondike.undoMove();
+		assertEquals(key, klondike.getCanonicalKey());
+	}
+
+	@Test
+	void canonical_key_should_equal_canonical_key_of_copy_after_moves() {
+		Klondike klondike = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		klondike.revealTopCard(1, Card.Ace | Card.Colour);
+		klondike.makeMove(new Move(Card.Ace | Card.Colour));
+		klondike.makeMove(new Move(Card.Ace));
+		assertEquals(klondike.deepCopy().getCanonicalKey(), klondike.getCanonicalKey());
+	}
+
+	@Test
+	void is_dead_end_if_card_is_covered_by_higher_card_of_its_suit_that_can_only_move_onto_cards_below() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(4, Card.Nine)}, Stock.Empty);
+		int[][] hiddenCards = {{Card.Four | Card.Colour, Card.Four | Card.Colour | Card.Type, Card.Two, Card.Three}};
+		assertTrue(klondike.isDeadEnd(hiddenCards));
+	}
+
+	@Test
+	void is_not_dead_end_if_covering_card_can_move_onto_card_elsewhere() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(4, Card.Nine)}, Stock.Empty);
+		int[][] hiddenCards = {{Card.Four | Card.Colour, Card.Five | Card.Colour | Card.Type, Card.Two, Card.Three}};
+		assertFalse(klondike.isDeadEnd(hiddenCards));
+	}
+
+	@Test
+	void is_not_dead_end_if_covering_card_is_lower() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(4, Card.Nine)}, Stock.Empty);
+		int[][] hiddenCards = {{Card.Four | Card.Colour, Card.Four | Card.Colour | Card.Type, Card.Three, Card.Two}};
+		assertFalse(klondike.isDeadEnd(hiddenCards));
+	}
+
+	@Test
+	void is_not_dead_end_if_covered_cards_are_unknown() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(4, Card.Nine)}, Stock.Empty);
+		int[][] hiddenCards = {{Card.Four | Card.Colour, Card.Four | Card.Colour | Card.Type, Card.Unknown, Card.Three}};
+		assertFalse(klondike.isDeadEnd(hiddenCards));
+	}
+
+	@Test
+	void is_dead_end_should_throw_exception_if_too_few_hidden_cards() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[]{new Column(4, Card.Nine)}, Stock.Empty);
+		assertThrows(IllegalArgumentException.class, () -> klondike.isDeadEnd(new int[][]{{Card.Two}}));
+	}
+
+	private static Klondike transpositionGame() {
+		Column[] columns = new Column[]{
+				new Column(0, Card.King), new Column(1, Card.Queen | Card.Colour),
+				new Column(0, Card.King | Card.Type), new Column(1, Card.Queen | Card.Colour | Card.Type)
+		};
+		return new Klondike(new Foundation[0], columns, Stock.Empty);
+	}
+
+	@Test
+	void zobrist_key_should_equal_key_of_new_game_in_same_state() {
+		Move[] moves = new Move[]{
+				new Move(Card.Ace),
+				new Move(Card.King),
+				new Move(Card.Three, Card.Four | Card.Colour),
+				new Move(Card.Two, Card.Ace)};
+		Stock stock = new Stock(Card.Two, Card.Three, Card.King);
+		Foundation[] foundations = new Foundation[]{new Foundation()};
+		Column[] columns = new Column[]{new Column(0, Card.Ace), new Column(2, Card.Four | Card.Colour)};
+		Klondike klondike = new Klondike(foundations, columns, stock);
+		for (Move move : moves) klondike.makeMove(move);
+		assertEquals(new Klondike(foundations, columns, stock).getZobristKey(), klondike.getZobristKey());
+	}
+
+	@Test
+	void encoded_possible_moves_should_equal_possible_moves() {
+		Stock stock = new Stock(Card.Two, Card.Three, Card.King, Card.Ace | Card.Colour);
+		Foundation[] foundations = new Foundation[]{new Foundation(), new Foundation(Card.Ace)};
+		Column[] columns = new Column[]{new Column(0, Card.Ace), new Column(2, Card.Four | Card.Colour), new Column(0)};
+		Klondike klondike = new Klondike(foundations, columns, stock);
+		int[] moves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		int numMoves = klondike.possibleMoves(moves);
+		Set<Move> decodedMoves = new HashSet<>();
+		for (int i = 0; i < numMoves; i++) decodedMoves.add(Move.decode(moves[i]));
+		assertEquals(klondike.possibleMoves(), decodedMoves);
+	}
+
+	@Test
+	void encoded_possible_moves_should_be_empty() {
+		Klondike klondike = new Klondike(new Foundation[0], new Column[0], Stock.Empty);
+		assertEquals(0, klondike.possibleMoves(new int[Klondike.MAX_NUM_POSSIBLE_MOVES]));
+	}
 
-}
\ No newline at end of file
+	@Test
+	void encoded_possible_moves_should_contain_move_to_empty_columns_once() {
+		Column[] columns = new Column[]{new Column(0), new Column(1, Card.King), new Column(0)};
+		Klondike klondike = new Klondike(new Foundation[0], columns, Stock.Empty);
+		int[] moves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		assertEquals(1, klondike.possibleMoves(moves));
+		assertEquals(Move.encode(Card.King), moves[0]);
+	}
+
+	@Test
+	void safe_move_to_foundation_should_move_ace() {
+		Column[] columns = new Column[]{new Column(1, Card.Five), new Column(0, Card.Ace | Card.Colour)};
+		Klondike klondike = new Klondike(new Foundation[]{new Foundation()}, columns, Stock.Empty);
+		assertEquals(Move.encode(Card.Ace | Card.Colour), klondike.safeMoveToFoundation());
+	}
+
+	@Test
+	void safe_move_to_foundation_should_move_card_when_opposite_colour_cards_one_rank_lower_are_in_foundations() {
+		Foundation[] foundations = new Foundation[]{new Foundation(Card.Two), new Foundation(Card.Two | Card.Colour),
+				new Foundation(Card.Two | Card.Colour | Card.Type)};
+		Column[] columns = new Column[]{new Column(0, Card.Three)};
+		Klondike klondike = new Klondike(foundations, columns, Stock.Empty);
+		assertEquals(Move.encode(Card.Three, Card.Two), klondike.safeMoveToFoundation());
+	}
+
+	@Test
+	void safe_move_to_foundation_should_not_move_card_that_may_be_needed_in_columns() {
+		Foundation[] foundations = new Foundation[]{new Foundation(Card.Two), new Foundation(Card.Two | Card.Colour),
+				new Foundation(Card.Ace | Card.Colour | Card.Type)};
+		Column[] columns = new Column[]{new Column(0, Card.Three)};
+		Klondike klondike = new Klondike(foundations, columns, Stock.Empty);
+		assertEquals(Klondike.NO_SAFE_MOVE, klondike.safeMoveToFoundation());
+	}
+
+	@Test
+	void safe_move_to_foundation_should_not_move_card_from_stock() {
+		Klondike klondike = new Klondike(new Foundation[]{new Foundation()}, new Column[0], new Stock(Card.Ace));
+		assertEquals(Klondike.NO_SAFE_MOVE, klondike.safeMoveToFoundation());
+	}
+}
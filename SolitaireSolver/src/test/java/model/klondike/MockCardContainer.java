@@ -32,6 +32,12 @@ class MockCardContainer implements CardContainer {
 		return null;
 	}
 
+	@Override
+	public long reachableCardsMask() {
+		assert false;
+		return 0;
+	}
+
 	@Override
 	public boolean canAcceptCard(int card) {
 		assert false;
@@ -0,0 +1,88 @@
+package model.klondike;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+	/**
+	 * For each reference deal, the counts of depth 0, 1, 2 and so on, from the position after the deal.
+	 */
+	private static final long[][] REFERENCE_COUNTS = {
+			{1, 7, 54, 478, 4243, 35838},
+			{1, 5, 32, 229, 1671, 12316},
+			{1, 8, 68, 616, 5481, 45022},
+	};
+
+	private static Klondike referencePosition(int index) {
+		return Deal.fromSeed(index + 1).newGame();
+	}
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void perft_should_throw_exception_if_game_is_null() {
+		assertThrows(IllegalArgumentException.class, () -> Perft.perft(null, 1));
+	}
+
+	@Test
+	void perft_should_throw_exception_if_depth_is_negative() {
+		assertThrows(IllegalArgumentException.class, () -> Perft.perft(referencePosition(0), -1));
+	}
+
+	@Test
+	void perft_should_throw_exception_if_parallelism_is_zero() {
+		assertThrows(IllegalArgumentException.class, () -> Perft.perft(referencePosition(0), 1, 0));
+	}
+
+	@Test
+	void perft_should_count_one_position_at_depth_zero() {
+		assertEquals(1, Perft.perft(Klondike.newGame(Stock.Empty), 0));
+	}
+
+	@Test
+	void perft_should_count_no_positions_if_no_moves_are_possible() {
+		assertEquals(0, Perft.perft(Klondike.newGame(Stock.Empty), 3));
+	}
+
+	@Test
+	void perft_should_count_possible_moves_at_depth_one() {
+		Klondike game = referencePosition(0);
+		assertEquals(game.possibleMoves(new int[Klondike.MAX_NUM_POSSIBLE_MOVES]), Perft.perft(game, 1));
+	}
+
+	@Test
+	void perft_should_give_reference_counts() {
+		for (int index = 0; index < REFERENCE_COUNTS.length; index++) {
+			Klondike game = referencePosition(index);
+			for (int depth = 0; depth < REFERENCE_COUNTS[index].length; depth++)
+				assertEquals(REFERENCE_COUNTS[index][depth], Perft.perft(game, depth), "Deal " + index + ", depth " + depth);
+		}
+	}
+
+	@Test
+	void perft_should_give_reference_counts_in_parallel() {
+		for (int index = 0; index < REFERENCE_COUNTS.length; index++) {
+			Klondike game = referencePosition(index);
+			for (int depth = 0; depth < REFERENCE_COUNTS[index].length; depth++)
+				assertEquals(REFERENCE_COUNTS[index][depth], Perft.perft(game, depth, 4), "Deal " + index + ", depth " + depth);
+		}
+	}
+
+	@Test
+	void perft_should_leave_game_unchanged() {
+		Klondike game = referencePosition(0);
+		Klondike copy = game.deepCopy();
+		Perft.perft(game, 4);
+		assertEquals(copy, game);
+		assertEquals(copy.getZobristKey(), game.getZobristKey());
+	}
+
+	@Test
+	void perft_should_leave_game_unchanged_in_parallel() {
+		Klondike game = referencePosition(0);
+		Klondike copy = game.deepCopy();
+		Perft.perft(game, 4, 4);
+		assertEquals(copy, game);
+		assertEquals(copy.getZobristKey(), game.getZobristKey());
+	}
+}
@@ -85,6 +85,15 @@ class StockTest {
 		assertTrue(reachableCards.contains(Card.Ace), "Deck does not contain sixth card.\nDeck: " + reachableCards);
 	}
 
+	@Test
+	void reachable_cards_mask_should_match_reachable_cards() {
+		Stock stock = new Stock(
+				Card.Five, Card.Three | Card.Colour, Card.Seven,
+				Card.Ten | Card.Type, Card.Three, Card.Ace);
+		stock.take(Card.Seven);
+		assertEquals(stock.reachableCards(), Card.fromMask(stock.reachableCardsMask()));
+	}
+
 	@Test
 	void reachable_card_should_only_contain_every_third_card() {
 		Set<Integer> reachableCards = new Stock(
@@ -173,6 +182,80 @@ class StockTest {
 		assertEquals(reachableCards, stock.reachableCards());
 	}
 
+	@Test
+	void top_of_waste_should_take_no_draws() {
+		Stock stock = new Stock(Card.Ace, Card.Two, Card.Three, Card.Four);
+		assertEquals(0, stock.drawsToReach(3));
+	}
+
+	@Test
+	void draws_to_reach_should_count_every_third_card_beyond_waste() {
+		Stock stock = new Stock(Card.Ace, Card.Two, Card.Three, Card.Four, Card.Five, Card.Six, Card.Seven, Card.Eight, Card.Nine, Card.Ten);
+		stock.take(Card.Three);
+		assertEquals(1, stock.drawsToReach(2));
+		assertEquals(2, stock.drawsToReach(5));
+	}
+
+	@Test
+	void draws_to_reach_should_count_turning_waste_over() {
+		Stock stock = new Stock(Card.Ace, Card.Two, Card.Three, Card.Four, Card.Five, Card.Six, Card.Seven);
+		stock.take(Card.Six);
+		// One draw to the end of the stock, one to turn the waste over and one to draw the first three cards again
+		assertEquals(1 + 1 + 1, stock.drawsToReach(2));
+	}
+
+	@Test
+	void draws_to_reach_should_throw_exception_given_unreachable_card() {
+		Stock stock = new Stock(Card.Ace, Card.Two, Card.Three, Card.Four);
+		assertThrows(IllegalArgumentException.class, () -> stock.drawsToReach(0));
+	}
+
+	@Test
+	void reachable_cards_should_be_restored_after_undo() {
+		Stock stock = new Stock(Card.Ace, Card.Two, Card.Three, Card.Four, Card.Five);
+		Set<Integer> reachableCards = stock.reachableCards();
+		MoveMetaInformation info = stock.move(Card.Three, new MockCardContainer());
+		stock.undo(Card.Three, info);
+		assertEquals(reachableCards, stock.reachableCards());
+	}
+
+	@Test
+	void putting_back_taken_cards_should_restore_stock() {
+		int[] cards = {Card.Ace, Card.Two, Card.Three, Card.Four, Card.Five, Card.Six, Card.Seven, Card.Eight, Card.Nine, Card.Ten};
+		Stock stock = new Stock(cards);
+		int[] taken = {Card.Ten, Card.Six, Card.Three, Card.Nine};
+		int[] indices = new int[taken.length];
+		int[] wastes = new int[taken.length];
+		for (int i = 0; i < taken.length; i++) {
+			indices[i] = stock.indexOf(taken[i]);
+			wastes[i] = stock.waste();
+			stock.take(taken[i]);
+		}
+		int[] remaining = {Card.Ace, Card.Two, Card.Four, Card.Five, Card.Seven, Card.Eight};
+		assertEquals(remaining.length, stock.getNumberOfCards());
+		for (int i = 0; i < remaining.length; i++)
+			assertEquals(remaining[i], stock.cardAt(i));
+		for (int i = taken.length - 1; i >= 0; i--)
+			stock.putBack(taken[i], indices[i], wastes[i]);
+		assertEquals(new Stock(cards), stock);
+	}
+
+	@Test
+	void index_of_should_follow_taken_cards() {
+		Stock stock = new Stock(Card.Ace, Card.Two, Card.Three, Card.Four, Card.Five, Card.Six);
+		stock.take(Card.Three);
+		assertEquals(2, stock.indexOf(Card.Four));
+		assertEquals(1, stock.indexOf(Card.Two));
+	}
+
+	@Test
+	void copy_should_not_change_with_original() {
+		Stock stock = new Stock(Card.Ace, Card.Two, Card.Three, Card.Four);
+		Stock copy = new Stock(stock);
+		stock.take(Card.Three);
+		assertEquals(new Stock(Card.Ace, Card.Two, Card.Three, Card.Four), copy);
+	}
+
 	@Test
 	void can_accept_card_should_return_false() {
 		assertFalse(new Stock().canAcceptCard(Card.Ace));
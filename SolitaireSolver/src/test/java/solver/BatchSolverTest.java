@@ -0,0 +1,92 @@
+package solver;
+
+import model.klondike.Deal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+	private final List<Deal> deals = IntStream.range(0, 6).mapToObj(Deal::fromSeed).toList();
+
+	@Test
+	void should_throw_exception_if_parallelism_is_zero() {
+		assertThrows(IllegalArgumentException.class, () -> new BatchSolver(0));
+	}
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void play_should_throw_exception_if_deals_is_null() {
+		BatchSolver batchSolver = new BatchSolver(2);
+		assertThrows(IllegalArgumentException.class, () ->
+				batchSolver.play(null, KlondikeSolver::new, 1, Duration.ofMillis(1), 1, result -> {}));
+	}
+
+	@Test
+	void play_should_throw_exception_if_max_moves_is_zero() {
+		BatchSolver batchSolver = new BatchSolver(2);
+		assertThrows(IllegalArgumentException.class, () ->
+				batchSolver.play(deals, KlondikeSolver::new, 1, Duration.ofMillis(1), 0, result -> {}));
+	}
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void solve_should_throw_exception_if_results_is_null() {
+		BatchSolver batchSolver = new BatchSolver(2);
+		assertThrows(IllegalArgumentException.class, () ->
+				batchSolver.solve(deals, BestFirstKlondikeSolver::new, 1, Duration.ofMillis(1), null));
+	}
+
+	@Test
+	void play_should_give_one_result_per_deal() {
+		Set<BatchSolver.Result> results = ConcurrentHashMap.newKeySet();
+		try (BatchSolver batchSolver = new BatchSolver(2)) {
+			batchSolver.play(deals, () -> new KlondikeSolver(1 << 10, 1), 2, Duration.ofMillis(1), 5, results::add);
+		}
+		assertEquals(Set.of(0, 1, 2, 3, 4, 5), results.stream().map(BatchSolver.Result::index).collect(Collectors.toSet()));
+		for (BatchSolver.Result result : results) {
+			assertFalse(result.won());
+			assertTrue(result.moves() <= 5);
+		}
+	}
+
+	@Test
+	void solve_should_find_solution_of_solvable_deal() {
+		Set<BatchSolver.Result> results = ConcurrentHashMap.newKeySet();
+		try (BatchSolver batchSolver = new BatchSolver(2)) {
+			batchSolver.solve(List.of(Deal.fromSeed(11)), () -> new BestFirstKlondikeSolver(KlondikeHeuristic.CARDS_LEFT, 5),
+					1000, Duration.ofSeconds(30), results::add);
+		}
+		BatchSolver.Result result = results.iterator().next();
+		assertEquals(0, result.index());
+		assertTrue(result.won());
+		assertTrue(result.moves() > 0);
+		assertTrue(result.nodes() > 0);
+	}
+
+	@Test
+	void play_should_close_every_solver_made() {
+		AtomicInteger made = new AtomicInteger();
+		AtomicInteger closed = new AtomicInteger();
+		try (BatchSolver batchSolver = new BatchSolver(2)) {
+			batchSolver.play(deals, () -> {
+				made.incrementAndGet();
+				return new KlondikeSolver(1 << 10) {
+					@Override
+					public void close() {
+						closed.incrementAndGet();
+					}
+				};
+			}, 2, Duration.ofMillis(1), 2, result -> {});
+		}
+		assertTrue(made.get() > 0);
+		assertEquals(made.get(), closed.get());
+	}
+}
@@ -0,0 +1,113 @@
+package solver;
+
+import model.Card;
+import model.Move;
+import model.klondike.Deal;
+import model.klondike.Klondike;
+import model.klondike.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestFirstKlondikeSolverTest {
+	/**
+	 * Solvable in well under a second with weight 5.
+	 */
+	private final Deal deal = Deal.fromSeed(11);
+	private final int[][] hiddenCards = deal.hiddenCards();
+
+	/**
+	 * Returns a new game of the deal with every card still face down.
+	 */
+	private Klondike newGame() {
+		return Klondike.newGame(new Stock(deal.stock()));
+	}
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void should_throw_exception_if_heuristic_is_null() {
+		assertThrows(IllegalArgumentException.class, () -> new BestFirstKlondikeSolver(null, 1));
+	}
+
+	@Test
+	void should_throw_exception_if_weight_is_zero() {
+		assertThrows(IllegalArgumentException.class, () -> new BestFirstKlondikeSolver(KlondikeHeuristic.CARDS_LEFT, 0));
+	}
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void solve_should_throw_exception_if_game_is_null() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver();
+		assertThrows(IllegalArgumentException.class, () -> solver.solve(null, 1, Duration.ofDays(5)));
+	}
+
+	@Test
+	void solve_should_throw_exception_if_hidden_cards_do_not_fit_columns() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver();
+		Klondike game = newGame();
+		assertThrows(IllegalArgumentException.class, () -> solver.solve(game, new int[7][0], 1, Duration.ofDays(5)));
+	}
+
+	@Test
+	void solve_should_find_moves_solving_deal() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver(KlondikeHeuristic.CARDS_LEFT, 5);
+		Klondike game = newGame();
+		Optional<List<Move>> solution = solver.solve(game, hiddenCards, 1000, Duration.ofSeconds(10));
+		assertTrue(solution.isPresent());
+		deal.revealUncoveredCards(game);
+		for (Move move : solution.get()) {
+			game.makeMove(move);
+			deal.revealUncoveredCards(game);
+		}
+		assertTrue(game.isSolved());
+	}
+
+	@Test
+	void solve_should_not_change_game() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver(KlondikeHeuristic.CARDS_LEFT, 5);
+		Klondike game = newGame();
+		Klondike copy = game.deepCopy();
+		solver.solve(game, hiddenCards, 1000, Duration.ofSeconds(10));
+		assertEquals(copy, game);
+	}
+
+	@Test
+	void get_stats_should_report_last_solve() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver(KlondikeHeuristic.CARDS_LEFT, 5);
+		Optional<List<Move>> solution = solver.solve(newGame(), hiddenCards, 1000, Duration.ofSeconds(10));
+		SolverStats stats = solver.getStats();
+		assertTrue(stats.getNodes() > 0);
+		assertEquals(solution.orElseThrow().size(), stats.getDepth());
+		assertTrue(stats.getTranspositionTableHits() <= stats.getTranspositionTableProbes());
+	}
+
+	@Test
+	void solve_should_find_nothing_if_cards_stay_face_down() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver();
+		assertTrue(solver.solve(newGame(), 1000, Duration.ofMillis(100)).isEmpty());
+	}
+
+	@Test
+	void solve_should_find_nothing_beyond_max_search_depth() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver(KlondikeHeuristic.CARDS_LEFT, 5);
+		// Solved in well under a second without the depth limit; with it, the search only stops at the time limit
+		assertTrue(solver.solve(newGame(), hiddenCards, 10, Duration.ofSeconds(2)).isEmpty());
+	}
+
+	@Test
+	void get_best_move_should_return_only_possible_move() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver();
+		assertEquals(new Move(Card.Ace), solver.getBestMove(Klondike.newGame(new Stock(Card.Ace)), 3, Duration.ofMillis(50)));
+	}
+
+	@Test
+	void get_best_move_should_return_possible_move() {
+		BestFirstKlondikeSolver solver = new BestFirstKlondikeSolver();
+		Klondike game = newGame();
+		assertTrue(game.possibleMoves().contains(solver.getBestMove(game, 50, Duration.ofMillis(100))));
+	}
+}
@@ -0,0 +1,174 @@
+package solver;
+
+import model.Card;
+import model.Move;
+import model.klondike.Deal;
+import model.klondike.Klondike;
+import model.klondike.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KlondikeSolverTest {
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void should_throw_exception_if_game_is_null() {
+		KlondikeSolver solver = new KlondikeSolver();
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(null, 1, Duration.ofDays(5)));
+	}
+
+	@Test
+	void should_throw_exception_if_max_search_depth_is_negative() {
+		KlondikeSolver solver = new KlondikeSolver();
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(Stock.Empty), -1, Duration.ofDays(5)));
+	}
+
+	@Test
+	void should_throw_exception_if_max_search_depth_is_zero() {
+		KlondikeSolver solver = new KlondikeSolver();
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(Stock.Empty), 0, Duration.ofDays(5)));
+	}
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void should_throw_exception_if_max_time_is_null() {
+		KlondikeSolver solver = new KlondikeSolver();
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(Stock.Empty), 1, null));
+	}
+
+	@Test
+	void get_best_move_should_throw_exeption_if_no_possible_moves() {
+		KlondikeSolver solver = new KlondikeSolver();
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(Stock.Empty), 1, Duration.ofDays(5)));
+	}
+
+	@Test
+	void get_best_move_should_return_only_possible_move() {
+		KlondikeSolver solver = new KlondikeSolver();
+		assertEquals(new Move(Card.Ace), solver.getBestMove(Klondike.newGame(new Stock(Card.Ace)), 3, Duration.ofSeconds(5)));
+	}
+
+	@Test
+	void get_best_move_should_prefer_move_to_foundation() {
+		KlondikeSolver solver = new KlondikeSolver();
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		assertEquals(new Move(Card.Ace), solver.getBestMove(game, 1, Duration.ofSeconds(5)));
+	}
+
+	@Test
+	void get_best_move_should_not_change_game() {
+		KlondikeSolver solver = new KlondikeSolver();
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		solver.getBestMove(game, 4, Duration.ofSeconds(5));
+		assertEquals(Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King)), game);
+	}
+
+	@Test
+	void get_best_move_should_respect_time_limit() {
+		KlondikeSolver solver = new KlondikeSolver();
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).toArray();
+		Klondike game = Klondike.newGame(new Stock(deck));
+		long start = System.nanoTime();
+		assertNotNull(solver.getBestMove(game, Integer.MAX_VALUE, Duration.ofMillis(200)));
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+	}
+
+	@Test
+	void get_best_move_should_return_safe_move_to_foundation_without_searching() {
+		KlondikeSolver solver = new KlondikeSolver();
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Six, Card.Four, Card.King));
+		game.revealTopCard(1, Card.Ace);
+		assertEquals(new Move(Card.Ace), solver.getBestMove(game, Integer.MAX_VALUE, Duration.ofDays(5)));
+	}
+
+	@Test
+	void should_throw_exception_if_parallelism_is_zero() {
+		assertThrows(IllegalArgumentException.class, () -> new KlondikeSolver(1 << 10, 0));
+	}
+
+	@Test
+	void parallel_search_should_find_same_move_as_single_threaded_search() {
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		Move expected = new KlondikeSolver(1 << 10).getBestMove(game, 4, Duration.ofSeconds(5));
+		assertEquals(expected, new KlondikeSolver(1 << 10, 4).getBestMove(game, 4, Duration.ofSeconds(5)));
+	}
+
+	@Test
+	void parallel_search_should_not_change_game() {
+		KlondikeSolver solver = new KlondikeSolver(1 << 10, 4);
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		solver.getBestMove(game, 4, Duration.ofSeconds(5));
+		assertEquals(Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King)), game);
+	}
+
+	@Test
+	void parallel_search_should_respect_time_limit() {
+		KlondikeSolver solver = new KlondikeSolver(1 << 16, 4);
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).toArray();
+		Klondike game = Klondike.newGame(new Stock(deck));
+		long start = System.nanoTime();
+		assertNotNull(solver.getBestMove(game, Integer.MAX_VALUE, Duration.ofMillis(200)));
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+	}
+
+	@Test
+	void search_should_check_time_even_if_every_root_move_searches_few_positions() {
+		KlondikeSolver solver = new KlondikeSolver(1 << 16);
+		// At depth 4, every move of this deal's opening searches fewer positions than are between time checks
+		solver.getBestMove(Deal.fromSeed(2).newGame(), 4, Duration.ofNanos(1));
+		assertEquals(KlondikeSolver.NODES_BETWEEN_TIME_CHECKS, solver.getStats().getNodes());
+		assertEquals(3, solver.getStats().getDepth());
+	}
+
+	@Test
+	void get_stats_should_report_nothing_before_first_search() {
+		SolverStats stats = new KlondikeSolver().getStats();
+		assertEquals(0, stats.getNodes());
+		assertEquals(0, stats.getDepth());
+	}
+
+	@Test
+	void get_stats_should_report_last_search() {
+		KlondikeSolver solver = new KlondikeSolver(1 << 16);
+		solver.getBestMove(Deal.fromSeed(2).newGame(), 3, Duration.ofMinutes(1)); // Has no safe move
+		SolverStats stats = solver.getStats();
+		assertTrue(stats.getNodes() > 0);
+		assertEquals(3, stats.getDepth());
+		assertTrue(stats.getTranspositionTableProbes() > 0);
+		assertTrue(stats.getTranspositionTableHits() <= stats.getTranspositionTableProbes());
+		assertTrue(stats.getCutoffs() <= stats.getNodes());
+		assertTrue(stats.getNodesPerSecond() > 0);
+	}
+
+	@Test
+	void get_stats_should_not_change_after_search() {
+		KlondikeSolver solver = new KlondikeSolver(1 << 16);
+		solver.getBestMove(Deal.fromSeed(2).newGame(), 3, Duration.ofMinutes(1)); // Has no safe move
+		SolverStats stats = solver.getStats();
+		long nodes = stats.getNodes();
+		Duration time = stats.getTime();
+		assertEquals(nodes, stats.getNodes());
+		assertEquals(time, stats.getTime());
+	}
+
+	@Test
+	void get_stats_should_report_no_nodes_for_safe_move() {
+		KlondikeSolver solver = new KlondikeSolver();
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Six, Card.Four, Card.King));
+		game.revealTopCard(1, Card.Ace);
+		solver.getBestMove(game, 3, Duration.ofSeconds(5));
+		assertEquals(0, solver.getStats().getNodes());
+	}
+
+	@Test
+	void parallel_search_should_report_stats() {
+		KlondikeSolver solver = new KlondikeSolver(1 << 16, 4);
+		solver.getBestMove(Deal.fromSeed(2).newGame(), 3, Duration.ofMinutes(1)); // Has no safe move
+		assertEquals(3, solver.getStats().getDepth());
+		assertTrue(solver.getStats().getNodes() > 0);
+	}
+}
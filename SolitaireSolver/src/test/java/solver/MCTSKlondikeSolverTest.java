@@ -0,0 +1,66 @@
+package solver;
+
+import model.Card;
+import model.Move;
+import model.klondike.Klondike;
+import model.klondike.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MCTSKlondikeSolverTest {
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void should_throw_exception_if_game_is_null() {
+		MCTSKlondikeSolver solver = new MCTSKlondikeSolver(42);
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(null, 1, Duration.ofDays(5)));
+	}
+
+	@Test
+	void should_throw_exception_if_max_search_depth_is_zero() {
+		MCTSKlondikeSolver solver = new MCTSKlondikeSolver(42);
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(new Stock(Card.Ace)), 0, Duration.ofDays(5)));
+	}
+
+	@Test
+	void get_best_move_should_throw_exeption_if_no_possible_moves() {
+		MCTSKlondikeSolver solver = new MCTSKlondikeSolver(42);
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(Stock.Empty), 1, Duration.ofMillis(50)));
+	}
+
+	@Test
+	void get_best_move_should_return_only_possible_move() {
+		MCTSKlondikeSolver solver = new MCTSKlondikeSolver(42);
+		assertEquals(new Move(Card.Ace), solver.getBestMove(Klondike.newGame(new Stock(Card.Ace)), 3, Duration.ofMillis(50)));
+	}
+
+	@Test
+	void get_best_move_should_return_possible_move() {
+		MCTSKlondikeSolver solver = new MCTSKlondikeSolver(42);
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).toArray();
+		Klondike game = Klondike.newGame(new Stock(Arrays.copyOf(deck, 24)));
+		assertTrue(game.possibleMoves().contains(solver.getBestMove(game, 50, Duration.ofMillis(100))));
+	}
+
+	@Test
+	void get_best_move_should_not_change_game() {
+		MCTSKlondikeSolver solver = new MCTSKlondikeSolver(42);
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		solver.getBestMove(game, 20, Duration.ofMillis(100));
+		assertEquals(Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King)), game);
+	}
+
+	@Test
+	void get_best_move_should_respect_time_limit() {
+		MCTSKlondikeSolver solver = new MCTSKlondikeSolver(42);
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).toArray();
+		Klondike game = Klondike.newGame(new Stock(deck));
+		long start = System.nanoTime();
+		assertNotNull(solver.getBestMove(game, Integer.MAX_VALUE, Duration.ofMillis(200)));
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+	}
+}
@@ -0,0 +1,87 @@
+package solver;
+
+import model.Card;
+import model.Move;
+import model.klondike.Klondike;
+import model.klondike.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingKlondikeSolverTest {
+
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	void should_throw_exception_if_game_is_null() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(null, 1, Duration.ofDays(5)));
+	}
+
+	@Test
+	void should_throw_exception_if_max_search_depth_is_zero() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(new Stock(Card.Ace)), 0, Duration.ofDays(5)));
+	}
+
+	@Test
+	void get_best_move_should_throw_exeption_if_no_possible_moves() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		assertThrows(IllegalArgumentException.class, () -> solver.getBestMove(Klondike.newGame(Stock.Empty), 1, Duration.ofMillis(50)));
+	}
+
+	@Test
+	void get_best_move_should_return_only_possible_move() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		assertEquals(new Move(Card.Ace), solver.getBestMove(Klondike.newGame(new Stock(Card.Ace)), 3, Duration.ofMillis(50)));
+	}
+
+	@Test
+	void get_best_move_should_return_possible_move() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).toArray();
+		Klondike game = Klondike.newGame(new Stock(Arrays.copyOf(deck, 24)));
+		assertTrue(game.possibleMoves().contains(solver.getBestMove(game, 50, Duration.ofMillis(100))));
+	}
+
+	@Test
+	void get_best_move_should_not_change_game() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		solver.getBestMove(game, 20, Duration.ofMillis(100));
+		assertEquals(Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King)), game);
+	}
+
+	@Test
+	void get_best_move_should_respect_time_limit() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		int[] deck = Arrays.stream(Card.fullDeck()).mapToInt(Integer::intValue).toArray();
+		Klondike game = Klondike.newGame(new Stock(deck));
+		long start = System.nanoTime();
+		assertNotNull(solver.getBestMove(game, Integer.MAX_VALUE, Duration.ofMillis(200)));
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+	}
+
+	@Test
+	void get_best_move_should_return_safe_move_to_foundation_without_sampling() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(2, 42);
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Six, Card.Four, Card.King));
+		game.revealTopCard(1, Card.Ace);
+		assertEquals(new Move(Card.Ace), solver.getBestMove(game, Integer.MAX_VALUE, Duration.ofDays(5)));
+	}
+
+	@Test
+	void should_throw_exception_if_parallelism_is_zero() {
+		assertThrows(IllegalArgumentException.class, () -> new SamplingKlondikeSolver(0, 42));
+	}
+
+	@Test
+	void single_threaded_search_should_not_change_game() {
+		SamplingKlondikeSolver solver = new SamplingKlondikeSolver(1, 42);
+		Klondike game = Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King));
+		solver.getBestMove(game, 4, Duration.ofMillis(100));
+		assertEquals(Klondike.newGame(new Stock(Card.Two, Card.Five, Card.Ace, Card.Six, Card.Four, Card.King)), game);
+	}
+}
@@ -0,0 +1,86 @@
+package solver;
+
+import model.klondike.Deal;
+import model.klondike.Klondike;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverStatsTest {
+	@Test
+	void new_stats_should_report_nothing() {
+		SolverStats stats = new SolverStats();
+		assertEquals(0, stats.getNodes());
+		assertEquals(0, stats.getDepth());
+		assertEquals(0, stats.getTranspositionTableProbes());
+		assertEquals(0, stats.getTranspositionTableHits());
+		assertEquals(0, stats.getCutoffs());
+		assertEquals(Duration.ZERO, stats.getMoveGenerationTime());
+		assertEquals(0, stats.getAllocatedBytes());
+	}
+
+	@Test
+	void add_to_should_add_counters_to_stats() {
+		SolverStats stats = new SolverStats();
+		SolverStats.Counters counters = new SolverStats.Counters();
+		counters.nodes = 5;
+		counters.transpositionTableProbes = 4;
+		counters.transpositionTableHits = 3;
+		counters.cutoffs = 2;
+		counters.addTo(stats);
+		counters.nodes = 1;
+		counters.addTo(stats);
+		assertEquals(6, stats.getNodes());
+		assertEquals(4, stats.getTranspositionTableProbes());
+		assertEquals(3, stats.getTranspositionTableHits());
+		assertEquals(2, stats.getCutoffs());
+	}
+
+	@Test
+	void add_to_should_reset_counters() {
+		SolverStats.Counters counters = new SolverStats.Counters();
+		counters.nodes = 5;
+		counters.cutoffs = 2;
+		counters.addTo(new SolverStats());
+		assertEquals(0, counters.nodes);
+		assertEquals(0, counters.cutoffs);
+	}
+
+	@Test
+	void possible_moves_should_return_moves_of_game() {
+		Klondike game = Deal.fromSeed(1).newGame();
+		SolverStats.Counters counters = new SolverStats.Counters();
+		int[] moves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		int[] expected = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		for (int i = 0; i < 100; i++) // Both timed and untimed calls
+			assertEquals(game.possibleMoves(expected), counters.possibleMoves(game, moves));
+		assertArrayEquals(expected, moves);
+	}
+
+	@Test
+	void reached_depth_should_keep_deepest() {
+		SolverStats stats = new SolverStats();
+		stats.reachedDepth(3);
+		stats.reachedDepth(2);
+		assertEquals(3, stats.getDepth());
+	}
+
+	@Test
+	void get_time_should_stop_when_finished() {
+		SolverStats stats = new SolverStats();
+		stats.finish();
+		assertEquals(stats.getTime(), stats.getTime());
+	}
+
+	@Test
+	void nodes_per_second_should_be_nodes_divided_by_time() {
+		SolverStats stats = new SolverStats();
+		SolverStats.Counters counters = new SolverStats.Counters();
+		counters.nodes = 1000;
+		counters.addTo(stats);
+		stats.finish();
+		assertEquals(1000 / (stats.getTime().toNanos() / 1e9), stats.getNodesPerSecond(), 1e-6);
+	}
+}
@@ -0,0 +1,107 @@
+package solver;
+
+import model.Card;
+import model.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+	@Test
+	void should_throw_exception_if_size_is_not_power_of_two() {
+		assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(1000));
+	}
+
+	@Test
+	void should_throw_exception_if_size_is_zero() {
+		assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+	}
+
+	@Test
+	void probe_should_not_find_anything_in_new_table() {
+		assertEquals(TranspositionTable.NOT_FOUND, new TranspositionTable(16).probe(42));
+	}
+
+	@Test
+	void probe_should_find_stored_result() {
+		TranspositionTable table = new TranspositionTable(16);
+		int move = Move.encode(Card.Ace);
+		table.store(42, 3, 1000, move);
+		long entry = table.probe(42);
+		assertNotEquals(TranspositionTable.NOT_FOUND, entry);
+		assertEquals(3, TranspositionTable.depthOf(entry));
+		assertEquals(1000, TranspositionTable.scoreOf(entry));
+		assertEquals(move, TranspositionTable.bestMoveOf(entry));
+	}
+
+	@Test
+	void probe_should_find_negative_score_and_no_move() {
+		TranspositionTable table = new TranspositionTable(16);
+		table.store(-42, 1, -1000, TranspositionTable.NO_MOVE);
+		long entry = table.probe(-42);
+		assertEquals(-1000, TranspositionTable.scoreOf(entry));
+		assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.bestMoveOf(entry));
+	}
+
+	@Test
+	void concurrent_stores_should_never_be_read_under_the_wrong_key() throws InterruptedException {
+		TranspositionTable table = new TranspositionTable(1);
+		Thread[] writers = new Thread[4];
+		for (int i = 0; i < writers.length; i++) {
+			long key = i + 1;
+			writers[i] = new Thread(() -> {
+				for (int j = 0; j < 100_000; j++)
+					table.store(key, 1, (int) key, (int) key); // Every result stored under a key holds that key
+			});
+			writers[i].start();
+		}
+		for (int j = 0; j < 100_000; j++) {
+			for (long key = 1; key <= writers.length; key++) {
+				long entry = table.probe(key);
+				if (entry == TranspositionTable.NOT_FOUND) continue;
+				assertEquals(key, TranspositionTable.scoreOf(entry));
+				assertEquals(key, TranspositionTable.bestMoveOf(entry));
+			}
+		}
+		for (Thread writer : writers) writer.join();
+	}
+
+	@Test
+	void probe_should_not_find_different_key() {
+		TranspositionTable table = new TranspositionTable(1);
+		table.store(42, 3, 1000, Move.encode(Card.Ace));
+		assertEquals(TranspositionTable.NOT_FOUND, table.probe(43));
+	}
+
+	@Test
+	void store_should_replace_other_key_in_same_slot() {
+		TranspositionTable table = new TranspositionTable(1);
+		table.store(42, 5, 1000, Move.encode(Card.Ace));
+		table.store(43, 1, 200, Move.encode(Card.King));
+		assertEquals(TranspositionTable.NOT_FOUND, table.probe(42));
+		assertEquals(200, TranspositionTable.scoreOf(table.probe(43)));
+	}
+
+	@Test
+	void store_should_keep_deeper_result_for_same_key() {
+		TranspositionTable table = new TranspositionTable(16);
+		table.store(42, 5, 1000, Move.encode(Card.Ace));
+		table.store(42, 2, 200, Move.encode(Card.King));
+		assertEquals(5, TranspositionTable.depthOf(table.probe(42)));
+		assertEquals(1000, TranspositionTable.scoreOf(table.probe(42)));
+	}
+
+	@Test
+	void clear_should_forget_stored_results() {
+		TranspositionTable table = new TranspositionTable(16);
+		table.store(42, 3, 1000, Move.encode(Card.Ace));
+		table.clear();
+		assertEquals(TranspositionTable.NOT_FOUND, table.probe(42));
+	}
+
+	@Test
+	void store_should_throw_exception_if_depth_is_zero() {
+		assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(16).store(42, 0, 0, TranspositionTable.NO_MOVE));
+	}
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import model.Card;
+import model.Move;
+import model.klondike.Klondike;
+import model.klondike.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reachable cards of the columns and the stock.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContainerBenchmark {
+	@Param
+	public Positions.Phase phase;
+
+	private Klondike game;
+	private Stock stock;
+	/**
+	 * A move from the stock, to change it by, or null if there is none.
+	 */
+	private Move stockMove;
+
+	@Setup
+	public void setUp() {
+		game = Positions.of(phase);
+		stock = game.stock;
+		int[] moves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+		int numMoves = game.possibleMoves(moves);
+		for (int i = 0; i < numMoves && stockMove == null; i++) {
+			Move move = Move.decode(moves[i]);
+			if ((stock.reachableCardsMask() & Card.toMask(move.movedCard())) != 0) stockMove = move;
+		}
+	}
+
+	@Benchmark
+	public void columnReachableCards(Blackhole blackhole) {
+		for (int i = 0; i < game.getNumberOfColumns(); i++)
+			blackhole.consume(Card.fromMask(game.getReachableCardsMask(i)));
+	}
+
+	@Benchmark
+	public long columnReachableCardsMask() {
+		long reachableCards = 0;
+		for (int i = 0; i < game.getNumberOfColumns(); i++)
+			reachableCards |= game.getReachableCardsMask(i);
+		return reachableCards;
+	}
+
+	@Benchmark
+	public Object stockReachableCards() {
+		return stock.reachableCards();
+	}
+
+	/**
+	 * The stock only works out its reachable cards again once it has changed, so this makes and undoes a move from it
+	 * first. The time taken includes the move.
+	 */
+	@Benchmark
+	public long stockReachableCardsMaskAfterChange() {
+		if (stockMove == null) return stock.reachableCardsMask();
+		game.makeMove(stockMove);
+		game.undoMove();
+		return stock.reachableCardsMask();
+	}
+}
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import model.klondike.DealGenerator;
+import model.klondike.Klondike;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dealing games from seeds, one seed after the other.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DealBenchmark {
+	private final DealGenerator generator = new DealGenerator();
+	private long seed = 0;
+
+	@Benchmark
+	public int deal() {
+		generator.deal(seed++);
+		return generator.getStockCard(0);
+	}
+
+	@Benchmark
+	public Klondike dealNewGame() {
+		generator.deal(seed++);
+		return generator.newGame();
+	}
+}
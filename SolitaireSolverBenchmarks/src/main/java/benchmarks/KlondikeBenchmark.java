@@ -0,0 +1,62 @@
+package benchmarks;
+
+import model.Move;
+import model.klondike.Klondike;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation and making and undoing moves, which every search does at every node.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KlondikeBenchmark {
+	@Param
+	public Positions.Phase phase;
+
+	private Klondike game;
+	private final int[] moves = new int[Klondike.MAX_NUM_POSSIBLE_MOVES];
+	private Move[] possibleMoves;
+
+	@Setup
+	public void setUp() {
+		game = Positions.of(phase);
+		possibleMoves = new Move[game.possibleMoves(moves)];
+		for (int i = 0; i < possibleMoves.length; i++)
+			possibleMoves[i] = Move.decode(moves[i]);
+	}
+
+	@Benchmark
+	public int possibleMoves() {
+		return game.possibleMoves(moves);
+	}
+
+	/**
+	 * Makes and undoes each move possible in the position in turn.
+	 */
+	@Benchmark
+	public long makeAndUndoMoves() {
+		long keys = 0;
+		for (Move move : possibleMoves) {
+			game.makeMove(move);
+			keys ^= game.getZobristKey();
+			game.undoMove();
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import model.klondike.Klondike;
+import model.klondike.Perft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting every sequence of moves to a fixed depth, which makes, generates and undoes moves and nothing else.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+	private static final int DEPTH = 5;
+
+	@Param
+	public Positions.Phase phase;
+
+	private Klondike game;
+
+	@Setup
+	public void setUp() {
+		game = Positions.of(phase);
+	}
+
+	@Benchmark
+	public long perft() {
+		return Perft.perft(game, DEPTH);
+	}
+
+	@Benchmark
+	public long perftInParallel() {
+		return Perft.perft(game, DEPTH, Runtime.getRuntime().availableProcessors());
+	}
+}
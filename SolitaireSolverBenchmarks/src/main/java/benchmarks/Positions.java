@@ -0,0 +1,75 @@
+package benchmarks;
+
+import model.Move;
+import model.klondike.Deal;
+import model.klondike.Klondike;
+import model.klondike.Stock;
+import org.jetbrains.annotations.NotNull;
+import solver.BestFirstKlondikeSolver;
+import solver.KlondikeHeuristic;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The positions benchmarked, taken from the solution of one seeded deal, so that every run benchmarks the same
+ * positions and they are ones a game can actually reach.
+ */
+public final class Positions {
+	/**
+	 * A deal whose solution the best-first solver finds in well under a second.
+	 */
+	private static final long SEED = 11;
+
+	public enum Phase {
+		/**
+		 * The deal as dealt: every card but the column tops face down.
+		 */
+		OPENING(0),
+		/**
+		 * Half way through the solution.
+		 */
+		MIDDLE_GAME(2),
+		/**
+		 * Three quarters through the solution, with most cards face up.
+		 */
+		ENDGAME(3);
+
+		private final int quarters;
+
+		Phase(int quarters) {
+			this.quarters = quarters;
+		}
+	}
+
+	private static List<Move> solution;
+
+	private Positions() {
+	}
+
+	/**
+	 * Returns a new game of the position, played as at a table, with face-down cards turned over as they are
+	 * uncovered. Moves of the solution that are safe moves to the foundations are played past, as
+	 * {@link solver.KlondikeSolver} would return those without searching.
+	 */
+	public static @NotNull Klondike of(@NotNull Phase phase) {
+		Deal deal = Deal.fromSeed(SEED);
+		List<Move> moves = solution(deal);
+		Klondike game = deal.newGame();
+		int numMoves = moves.size() * phase.quarters / 4;
+		for (int i = 0; i < numMoves || game.safeMoveToFoundation() != Klondike.NO_SAFE_MOVE; i++) {
+			game.makeMove(moves.get(i));
+			deal.revealUncoveredCards(game);
+		}
+		return game;
+	}
+
+	private static synchronized @NotNull List<Move> solution(@NotNull Deal deal) {
+		if (solution == null) {
+			solution = new BestFirstKlondikeSolver(KlondikeHeuristic.CARDS_LEFT, 5)
+					.solve(Klondike.newGame(new Stock(deal.stock())), deal.hiddenCards(), 1000, Duration.ofMinutes(1))
+					.orElseThrow(() -> new IllegalStateException("Error: No solution found of deal " + SEED));
+		}
+		return solution;
+	}
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import model.Move;
+import model.klondike.Klondike;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.KlondikeSolver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A search of a fixed depth by {@link KlondikeSolver}. The time limit is never reached, so each search does the same
+ * work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+	private static final int TRANSPOSITION_TABLE_SIZE = 1 << 16;
+	private static final Duration MAX_TIME = Duration.ofMinutes(1);
+
+	@Param
+	public Positions.Phase phase;
+	@Param({"3", "5"})
+	public int depth;
+
+	private Klondike game;
+	private KlondikeSolver solver;
+
+	@Setup
+	public void setUp() {
+		game = Positions.of(phase);
+	}
+
+	/**
+	 * The solver remembers positions across searches, so each search gets a new one, lest later searches merely look
+	 * up what the first found. The allocation reported per search includes the new solver's transposition table.
+	 */
+	@Setup(Level.Invocation)
+	public void newSolver() {
+		solver = new KlondikeSolver(TRANSPOSITION_TABLE_SIZE);
+	}
+
+	@Benchmark
+	public Move getBestMove() {
+		return solver.getBestMove(game, depth, MAX_TIME);
+	}
+}